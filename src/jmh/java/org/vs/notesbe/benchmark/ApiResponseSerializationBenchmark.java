@@ -0,0 +1,65 @@
+package org.vs.notesbe.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.vs.notesbe.dto.ApiResponse;
+import org.vs.notesbe.dto.NoteResponseDto;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Response body of getNotes as the MVC message converter writes it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"10", "200", "2000"})
+    private int notes;
+
+    @Param({"100", "4000"})
+    private int bodyLength;
+
+    // Same defaults Spring Boot applies to the application's ObjectMapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private ApiResponse<List<NoteResponseDto>> response;
+
+    @Setup
+    public void setUp() {
+        String body = "x".repeat(bodyLength);
+        Instant now = Instant.now();
+        List<NoteResponseDto> dtos = new ArrayList<>(notes);
+        for (int i = 0; i < notes; i++) {
+            NoteResponseDto dto = new NoteResponseDto();
+            dto.setNoteId(UUID.randomUUID());
+            dto.setTitle("Title " + i);
+            dto.setBody(body);
+            dto.setUpdatedAt(now);
+            dto.setVersion((long) i);
+            dtos.add(dto);
+        }
+        response = new ApiResponse<>(true, "Notes retrieved successfully", dtos);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
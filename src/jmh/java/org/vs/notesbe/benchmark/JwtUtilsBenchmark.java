@@ -0,0 +1,50 @@
+package org.vs.notesbe.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vs.notesbe.util.JwtUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private final JwtUtils jwtUtils = new JwtUtils();
+    private UUID userId;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        userId = UUID.randomUUID();
+        token = jwtUtils.generateToken(userId);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken(userId);
+    }
+
+    @Benchmark
+    public String extractUserId() {
+        return jwtUtils.extractUserId(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtils.validateToken(token);
+    }
+}
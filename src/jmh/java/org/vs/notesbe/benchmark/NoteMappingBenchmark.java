@@ -0,0 +1,65 @@
+package org.vs.notesbe.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+import org.vs.notesbe.dto.NoteResponseDto;
+import org.vs.notesbe.mapper.NoteMapper;
+import org.vs.notesbe.model.Note;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// The getNotes mapping path: a page of entities to response DTOs
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteMappingBenchmark {
+
+    @Param({"50", "200", "5000"})
+    private int size;
+
+    private final NoteMapper noteMapper = new NoteMapper();
+    private List<Note> notes;
+
+    @Setup
+    public void setUp() {
+        UUID userId = UUID.randomUUID();
+        Instant now = Instant.now();
+        notes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            notes.add(new Note(UUID.randomUUID(), userId, "Title " + i, "Body of note " + i, null, now, now, (long) i, 0L));
+        }
+    }
+
+    @Benchmark
+    public List<NoteResponseDto> beanUtilsCopyProperties() {
+        return notes.stream()
+                .map(note -> {
+                    NoteResponseDto dto = new NoteResponseDto();
+                    BeanUtils.copyProperties(note, dto);
+                    return dto;
+                })
+                .toList();
+    }
+
+    @Benchmark
+    public List<NoteResponseDto> noteMapper() {
+        return noteMapper.toResponseDtos(notes);
+    }
+}
@@ -0,0 +1,111 @@
+package org.vs.notesbe.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.vs.notesbe.dto.ApiResponse;
+import org.vs.notesbe.dto.NotePageResponseDto;
+import org.vs.notesbe.dto.NoteResponseDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// A getNotes page in each negotiable format, with and without the gzip Tomcat applies. Payload sizes are
+// printed once per trial; scores are the encode (and compress) time.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+    private static final String[] WORDS = ("the a to and of meeting notes project idea todo list call review draft "
+            + "budget plan design api release fix bug follow up tomorrow monday friday team client deadline "
+            + "shopping milk eggs bread recipe travel flight hotel book read learn write code test deploy").split(" ");
+
+    @Param({"50", "200"})
+    private int notes;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<NotePageResponseDto> response;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Same builder settings the application's converters use
+        objectMapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+
+        // Mostly short notes with a long tail, like real ones
+        Random random = new Random(42);
+        Instant now = Instant.now();
+        List<NoteResponseDto> dtos = new ArrayList<>(notes);
+        for (int i = 0; i < notes; i++) {
+            NoteResponseDto dto = new NoteResponseDto();
+            dto.setNoteId(UUID.randomUUID());
+            dto.setTitle(words(random, 2 + random.nextInt(6)));
+            dto.setBody(words(random, (int) Math.exp(2 + random.nextDouble() * 5)));
+            dto.setUpdatedAt(now.minusSeconds(random.nextInt(1_000_000)));
+            dto.setVersion((long) random.nextInt(20));
+            dtos.add(dto);
+        }
+        NotePageResponseDto page = new NotePageResponseDto();
+        page.setNotes(dtos);
+        page.setHasMore(true);
+        page.setNextCursor("eyJ1IjoiMjAyNi0xMC0xN1QxMjowMDowMFoiLCJpIjoiMDE5MmY0In0");
+        response = new ApiResponse<>(true, "Notes retrieved successfully", page);
+
+        System.out.printf("%n%s%s, %d notes: %d bytes%n", format, gzip ? "+gzip" : "", notes, encode().length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (!gzip) {
+            return objectMapper.writeValueAsBytes(response);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzipOutputStream, response);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder sb = new StringBuilder(count * 6);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(random.nextInt(12) == 0 ? ". " : " ");
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
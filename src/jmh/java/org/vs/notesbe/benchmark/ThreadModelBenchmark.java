@@ -0,0 +1,98 @@
+package org.vs.notesbe.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// A burst of requests, each holding a pooled connection for a blocking query and then doing a
+// little CPU work, on Tomcat's default 200 platform threads vs one virtual thread per request
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadModelBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"1000", "10000"})
+    private int concurrentRequests;
+
+    @Param({"20"})
+    private int connectionPoolSize;
+
+    @Param({"2"})
+    private int queryMillis;
+
+    private ExecutorService platformThreads;
+    private ExecutorService virtualThreads;
+    private Semaphore connectionPool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        platformThreads = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+        connectionPool = new Semaphore(connectionPoolSize, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        platformThreads.shutdownNow();
+        virtualThreads.shutdownNow();
+    }
+
+    @Benchmark
+    public long platformThreads() throws Exception {
+        return runBurst(platformThreads);
+    }
+
+    @Benchmark
+    public long virtualThreads() throws Exception {
+        return runBurst(virtualThreads);
+    }
+
+    private long runBurst(ExecutorService executor) throws Exception {
+        List<Future<Long>> futures = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            futures.add(executor.submit(this::handleRequest));
+        }
+        long sum = 0;
+        for (Future<Long> future : futures) {
+            sum += future.get();
+        }
+        return sum;
+    }
+
+    private long handleRequest() throws InterruptedException {
+        connectionPool.acquire();
+        try {
+            Thread.sleep(queryMillis);
+        } finally {
+            connectionPool.release();
+        }
+        long hash = 17;
+        for (int i = 0; i < 1_000; i++) {
+            hash = hash * 31 + i;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,79 @@
+package org.vs.notesbe.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// A request from src/main/resources/requests/*.http, with its host and userId/noteId swapped per call
+record HttpRequestTemplate(String name, String method, String url, Map<String, String> headers, String body) {
+
+    private static final Pattern ORIGIN = Pattern.compile("^https?://[^/]+");
+    private static final Pattern USER_ID = Pattern.compile("([?&]userId=)[^&]*");
+    private static final Pattern NOTE_ID = Pattern.compile("([?&]noteId=)[^&]*");
+
+    static HttpRequestTemplate load(String name) throws IOException {
+        String resource = "requests/" + name + ".http";
+        try (InputStream in = HttpRequestTemplate.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No request file " + resource);
+            }
+            return parse(name, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    // IntelliJ HTTP client format: "METHOD url", indented url continuation lines, headers, blank line, body
+    static HttpRequestTemplate parse(String name, String text) {
+        String[] lines = text.split("\\R", -1);
+        int i = 0;
+        while (lines[i].isBlank()) {
+            i++;
+        }
+        String[] requestLine = lines[i++].trim().split("\\s+", 2);
+        StringBuilder url = new StringBuilder(requestLine[1]);
+        while (i < lines.length && !lines[i].isBlank() && Character.isWhitespace(lines[i].charAt(0))) {
+            url.append(lines[i++].trim());
+        }
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        while (i < lines.length && !lines[i].isBlank()) {
+            String[] header = lines[i++].split(":", 2);
+            headers.put(header[0].trim(), header[1].trim());
+        }
+
+        StringBuilder body = new StringBuilder();
+        for (i++; i < lines.length && !lines[i].startsWith("###"); i++) {
+            body.append(lines[i]).append('\n');
+        }
+        String trimmedBody = body.toString().trim();
+        return new HttpRequestTemplate(name, requestLine[0], url.toString(), headers, trimmedBody.isEmpty() ? null : trimmedBody);
+    }
+
+    HttpRequest toRequest(String baseUrl, String token, UUID userId, UUID noteId, Duration timeout) {
+        String target = ORIGIN.matcher(url).replaceFirst(Matcher.quoteReplacement(baseUrl));
+        target = USER_ID.matcher(target).replaceAll("$1" + userId);
+        if (noteId != null) {
+            target = NOTE_ID.matcher(target).replaceAll("$1" + noteId);
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target))
+                .timeout(timeout)
+                .header("Cookie", "token=" + token)
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        headers.forEach(builder::header);
+        return builder.build();
+    }
+
+    boolean needsNoteId() {
+        return NOTE_ID.matcher(url).find();
+    }
+}
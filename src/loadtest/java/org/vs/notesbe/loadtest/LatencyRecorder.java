@@ -0,0 +1,69 @@
+package org.vs.notesbe.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Latencies of one operation; kept raw (a run is minutes, not hours) so percentiles are exact
+final class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+    private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+    synchronized void record(long latencyNanos, int status, boolean error) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (error) {
+            errors++;
+        }
+        statuses.merge(status, 1, Integer::sum);
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    synchronized int errors() {
+        return errors;
+    }
+
+    synchronized Map<String, Object> report(double measuredSeconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", count == 0 ? 0 : millis(Arrays.stream(sorted).sum() / count));
+        latency.put("p50", percentile(sorted, 0.50));
+        latency.put("p90", percentile(sorted, 0.90));
+        latency.put("p95", percentile(sorted, 0.95));
+        latency.put("p99", percentile(sorted, 0.99));
+        latency.put("p999", percentile(sorted, 0.999));
+        latency.put("max", count == 0 ? 0 : millis(sorted[count - 1]));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("requests", count);
+        report.put("errors", errors);
+        report.put("errorRate", count == 0 ? 0 : (double) errors / count);
+        report.put("throughputPerSecond", count / measuredSeconds);
+        report.put("latencyMillis", latency);
+        report.put("statusCodes", new TreeMap<>(statuses));
+        return report;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return millis(sorted[Math.max(index, 0)]);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
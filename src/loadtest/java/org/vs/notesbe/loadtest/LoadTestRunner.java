@@ -0,0 +1,354 @@
+package org.vs.notesbe.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.vs.notesbe.NotesBeApplication;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Seeds users and notes through the public API, then replays a weighted mix of the bundled .http
+ * requests at a fixed arrival rate and writes a JSON report.
+ *
+ *   mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--users=50 --notes-per-user=2000 --rate=300"
+ *
+ * Options (defaults in brackets):
+ *   --boot=true|false          start the app in-process [true]; false targets --base-url
+ *   --base-url=URL             running instance when --boot=false [http://localhost:8090]
+ *   --db-url, --db-user, --db-password   database for the booted app [application.properties]
+ *   --replica-urls=URL,...     read replicas for the booted app, e.g. a second local Postgres [none]
+ *   --shard-urls=URL,...       extra note shards for the booted app, e.g. more local Postgres instances [none]
+ *   --users=N                  users to seed [20]
+ *   --notes-per-user=M         notes imported per user [500]
+ *   --note-body-chars=C        body length of seeded notes [200]
+ *   --rate=R                   requests per second, open loop [200]
+ *   --duration=SECONDS         measured duration [60]
+ *   --warmup=SECONDS           unrecorded lead-in [10]
+ *   --max-in-flight=K          requests in flight before new ones are counted as dropped [2000]
+ *   --mix=name:weight,...      request files and weights [see DEFAULT_MIX]
+ *   --report=PATH              report location [target/loadtest-report.json]
+ *
+ * The app's queries are PostgreSQL specific, so "embedded" means a throwaway local Postgres
+ * (e.g. docker run -p 5433:5432 postgres) passed with --db-url.
+ */
+public class LoadTestRunner {
+
+    private static final String DEFAULT_MIX =
+            "getAllNotes:45,getNoteSummaries:15,searchNotes:10,syncNotes:5,getRecentNotes:5,addNote:10,editNote:10";
+    private static final String PASSWORD = "LoadTest@123";
+    private static final int IMPORT_BATCH = 1000;
+    private static final int SEED_PARALLELISM = 4;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Map<String, String> options;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private String baseUrl;
+
+    private LoadTestRunner(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        new LoadTestRunner(options).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        ConfigurableApplicationContext app = null;
+        if (Boolean.parseBoolean(option("boot", "true"))) {
+            app = bootApplication();
+            baseUrl = "http://localhost:" + ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+        } else {
+            baseUrl = option("base-url", "http://localhost:8090");
+        }
+
+        try {
+            List<Operation> mix = parseMix(option("mix", DEFAULT_MIX));
+            List<VirtualUser> users = seed();
+            Map<String, Object> report = replay(mix, users);
+            Path reportPath = Path.of(option("report", "target/loadtest-report.json"));
+            Files.createDirectories(reportPath.toAbsolutePath().getParent());
+            objectMapper.writeValue(reportPath.toFile(), report);
+            System.out.println("Load test report written to " + reportPath.toAbsolutePath());
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext bootApplication() {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--management.server.port=0",
+                // Keep the app's INFO logging out of the measurement; WARN and ERROR still show
+                "--notes.logging.sampling.default-rate=0"
+        ));
+        if (options.containsKey("db-url")) {
+            args.add("--spring.datasource.url=" + options.get("db-url"));
+        }
+        if (options.containsKey("db-user")) {
+            args.add("--spring.datasource.username=" + options.get("db-user"));
+        }
+        if (options.containsKey("db-password")) {
+            args.add("--spring.datasource.password=" + options.get("db-password"));
+        }
+        if (options.containsKey("replica-urls")) {
+            args.add("--notes.datasource.replica-urls=" + options.get("replica-urls"));
+        }
+        if (options.containsKey("shard-urls")) {
+            String[] shardUrls = options.get("shard-urls").split(",");
+            for (int i = 0; i < shardUrls.length; i++) {
+                args.add("--notes.sharding.shards[" + i + "].name=shard-" + (i + 1));
+                args.add("--notes.sharding.shards[" + i + "].url=" + shardUrls[i].trim());
+            }
+        }
+        return SpringApplication.run(NotesBeApplication.class, args.toArray(String[]::new));
+    }
+
+    // Signup is BCrypt-bound and sheds load with 503, so seeding runs with little parallelism and retries
+    private List<VirtualUser> seed() throws Exception {
+        int userCount = Integer.parseInt(option("users", "20"));
+        int notesPerUser = Integer.parseInt(option("notes-per-user", "500"));
+        int bodyChars = Integer.parseInt(option("note-body-chars", "200"));
+        String body = "lorem ipsum dolor sit amet ".repeat(bodyChars / 27 + 1).substring(0, bodyChars);
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        long start = System.nanoTime();
+        List<VirtualUser> users = new ArrayList<>(userCount);
+        try (ExecutorService executor = Executors.newFixedThreadPool(SEED_PARALLELISM)) {
+            List<Future<VirtualUser>> futures = new ArrayList<>(userCount);
+            for (int i = 0; i < userCount; i++) {
+                String userName = "lt-" + runId + "-" + i;
+                futures.add(executor.submit(() -> seedUser(userName, notesPerUser, body)));
+            }
+            for (Future<VirtualUser> future : futures) {
+                users.add(future.get());
+            }
+        }
+        System.out.printf("Seeded %d users with %d notes each in %d s%n",
+                userCount, notesPerUser, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+        return users;
+    }
+
+    private VirtualUser seedUser(String userName, int notes, String body) throws Exception {
+        Map<String, String> credentials = Map.of("userName", userName, "email", userName + "@loadtest.local", "password", PASSWORD);
+        sendWithRetry(post("/api/v1/users/signup", credentials, null));
+
+        HttpResponse<String> signin = sendWithRetry(post("/api/v1/users/signin",
+                Map.of("userName", userName, "password", PASSWORD), null));
+        String token = signin.headers().allValues("Set-Cookie").stream()
+                .filter(cookie -> cookie.startsWith("token="))
+                .map(cookie -> cookie.substring("token=".length(), cookie.indexOf(';')))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No token cookie for " + userName));
+        UUID userId = UUID.fromString(objectMapper.readTree(
+                Base64.getUrlDecoder().decode(token.split("\\.")[1])).get("sub").asText());
+
+        for (int offset = 0; offset < notes; offset += IMPORT_BATCH) {
+            List<Map<String, String>> batch = new ArrayList<>();
+            for (int n = offset; n < Math.min(notes, offset + IMPORT_BATCH); n++) {
+                batch.add(Map.of("title", "Load test note " + n, "body", body));
+            }
+            sendWithRetry(post("/api/v1/notes/importNotes?userId=" + userId, batch, token));
+        }
+
+        HttpResponse<String> page = sendWithRetry(HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/api/v1/notes/getNotes?userId=" + userId + "&limit=200"))
+                .header("Cookie", "token=" + token)
+                .GET()
+                .build());
+        List<UUID> noteIds = new ArrayList<>();
+        for (JsonNode note : objectMapper.readTree(page.body()).path("data").path("notes")) {
+            noteIds.add(UUID.fromString(note.get("noteId").asText()));
+        }
+        return new VirtualUser(userId, token, noteIds);
+    }
+
+    private Map<String, Object> replay(List<Operation> mix, List<VirtualUser> users) throws InterruptedException {
+        double rate = Double.parseDouble(option("rate", "200"));
+        int durationSeconds = Integer.parseInt(option("duration", "60"));
+        int warmupSeconds = Integer.parseInt(option("warmup", "10"));
+        Semaphore inFlight = new Semaphore(Integer.parseInt(option("max-in-flight", "2000")));
+        int totalWeight = mix.stream().mapToInt(Operation::weight).sum();
+
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        mix.forEach(operation -> recorders.put(operation.template().name(), new LatencyRecorder()));
+        AtomicInteger dropped = new AtomicInteger();
+
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        System.out.printf("Replaying at %.0f req/s for %d s (+%d s warmup) against %s%n", rate, durationSeconds, warmupSeconds, baseUrl);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Open loop: arrivals follow the schedule regardless of how fast responses come back, and
+            // latency is measured from the scheduled time so a stalled server cannot hide its queueing
+            for (long scheduled = start; scheduled < end; scheduled += interval) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                boolean measured = scheduled >= measureFrom;
+                if (!inFlight.tryAcquire()) {
+                    if (measured) {
+                        dropped.incrementAndGet();
+                    }
+                    continue;
+                }
+                Operation operation = pick(mix, totalWeight);
+                VirtualUser user = users.get(ThreadLocalRandom.current().nextInt(users.size()));
+                long intended = scheduled;
+                executor.submit(() -> {
+                    try {
+                        execute(operation, user, intended, measured ? recorders.get(operation.template().name()) : null);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+
+        double measuredSeconds = durationSeconds;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        recorders.forEach((name, recorder) -> operations.put(name, recorder.report(measuredSeconds)));
+        int requests = recorders.values().stream().mapToInt(LatencyRecorder::count).sum();
+        int errors = recorders.values().stream().mapToInt(LatencyRecorder::errors).sum();
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("baseUrl", baseUrl);
+        config.put("users", users.size());
+        config.put("notesPerUser", Integer.parseInt(option("notes-per-user", "500")));
+        config.put("targetRate", rate);
+        config.put("durationSeconds", durationSeconds);
+        config.put("warmupSeconds", warmupSeconds);
+        config.put("mix", option("mix", DEFAULT_MIX));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", requests);
+        summary.put("errors", errors);
+        summary.put("errorRate", requests == 0 ? 0 : (double) errors / requests);
+        summary.put("throughputPerSecond", requests / measuredSeconds);
+        summary.put("dropped", dropped.get());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("config", config);
+        report.put("summary", summary);
+        report.put("operations", operations);
+        return report;
+    }
+
+    private void execute(Operation operation, VirtualUser user, long intended, LatencyRecorder recorder) {
+        HttpRequestTemplate template = operation.template();
+        UUID noteId = template.needsNoteId() && !user.noteIds().isEmpty()
+                ? user.noteIds().get(ThreadLocalRandom.current().nextInt(user.noteIds().size()))
+                : null;
+        int status = 0;
+        try {
+            HttpResponse<Void> response = httpClient.send(
+                    template.toRequest(baseUrl, user.token(), user.userId(), noteId, REQUEST_TIMEOUT),
+                    HttpResponse.BodyHandlers.discarding());
+            status = response.statusCode();
+        } catch (Exception e) {
+            // Counted below as status 0
+        }
+        if (recorder != null) {
+            recorder.record(System.nanoTime() - intended, status, status == 0 || status >= 400);
+        }
+    }
+
+    private HttpRequest post(String path, Object body, String token) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body), StandardCharsets.UTF_8));
+        if (token != null) {
+            builder.header("Cookie", "token=" + token);
+        }
+        return builder.build();
+    }
+
+    private HttpResponse<String> sendWithRetry(HttpRequest request) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() < 400) {
+                return response;
+            }
+            if (response.statusCode() != 503 || attempt == 10) {
+                throw new IllegalStateException(request.method() + " " + request.uri() + " -> "
+                        + response.statusCode() + ": " + response.body());
+            }
+            Thread.sleep(200L * attempt);
+        }
+    }
+
+    private static List<Operation> parseMix(String mix) throws Exception {
+        List<Operation> operations = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            operations.add(new Operation(HttpRequestTemplate.load(parts[0]), Integer.parseInt(parts[1])));
+        }
+        return operations;
+    }
+
+    private static Operation pick(List<Operation> mix, int totalWeight) {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : mix) {
+            roll -= operation.weight();
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return mix.get(mix.size() - 1);
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private record Operation(HttpRequestTemplate template, int weight) {
+    }
+
+    private record VirtualUser(UUID userId, String token, List<UUID> noteIds) {
+    }
+}
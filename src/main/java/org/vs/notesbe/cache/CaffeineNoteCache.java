@@ -0,0 +1,101 @@
+package org.vs.notesbe.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.vs.notesbe.dto.NoteCacheStatsDto;
+import org.vs.notesbe.dto.NotePageResponseDto;
+import org.vs.notesbe.dto.NoteResponseDto;
+import org.vs.notesbe.util.CacheLoading;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Node-local cache; Caffeine evicts by weight with W-TinyLFU once the byte budget is reached
+public class CaffeineNoteCache implements NoteCache {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    // Async only so that loads run outside the map's locks (see CacheLoading); values are always loaded in place
+    private final AsyncCache<Object, Object> entries;
+
+    // List pages are keyed by a per-user generation; replacing it makes every cached page unreachable
+    private final Cache<UUID, UUID> generations;
+
+    public CaffeineNoteCache(long maxBytes, Duration ttl) {
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Object key, Object value) -> weigh(value))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(ttl)
+                .build();
+    }
+
+    @Override
+    public NoteResponseDto getNote(UUID userId, UUID noteId, Supplier<NoteResponseDto> loader) {
+        return (NoteResponseDto) CacheLoading.getOrLoad(entries, new NoteKey(userId, noteId), loader);
+    }
+
+    @Override
+    public NotePageResponseDto getNotePage(UUID userId, String cursor, int limit, Supplier<NotePageResponseDto> loader) {
+        UUID generation = generations.get(userId, id -> UUID.randomUUID());
+        return (NotePageResponseDto) CacheLoading.getOrLoad(entries, new PageKey(userId, generation, cursor, limit), loader);
+    }
+
+    @Override
+    public void invalidate(UUID userId, Collection<UUID> noteIds) {
+        generations.put(userId, UUID.randomUUID());
+        for (UUID noteId : noteIds) {
+            entries.synchronous().invalidate(new NoteKey(userId, noteId));
+        }
+    }
+
+    @Override
+    public NoteCacheStatsDto stats() {
+        CacheStats stats = entries.synchronous().stats();
+
+        NoteCacheStatsDto dto = new NoteCacheStatsDto();
+        dto.setType("local");
+        dto.setHits(stats.hitCount());
+        dto.setMisses(stats.missCount());
+        dto.setEvictions(stats.evictionCount());
+        dto.setHitRate(stats.hitRate());
+        dto.setEstimatedSize(entries.synchronous().estimatedSize());
+        return dto;
+    }
+
+    private static int weigh(Object value) {
+        if (value instanceof NoteResponseDto note) {
+            return weigh(note);
+        }
+        if (value instanceof NotePageResponseDto page) {
+            int weight = ENTRY_OVERHEAD_BYTES + length(page.getNextCursor()) * 2;
+            for (NoteResponseDto note : page.getNotes()) {
+                weight += weigh(note);
+            }
+            return weight;
+        }
+        return ENTRY_OVERHEAD_BYTES;
+    }
+
+    private static int weigh(NoteResponseDto note) {
+        return ENTRY_OVERHEAD_BYTES + (length(note.getTitle()) + length(note.getBody())) * 2;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private record NoteKey(UUID userId, UUID noteId) {
+    }
+
+    private record PageKey(UUID userId, UUID generation, String cursor, int limit) {
+    }
+}
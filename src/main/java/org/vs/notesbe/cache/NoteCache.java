@@ -0,0 +1,21 @@
+package org.vs.notesbe.cache;
+
+import org.vs.notesbe.dto.NoteCacheStatsDto;
+import org.vs.notesbe.dto.NotePageResponseDto;
+import org.vs.notesbe.dto.NoteResponseDto;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+public interface NoteCache {
+
+    NoteResponseDto getNote(UUID userId, UUID noteId, Supplier<NoteResponseDto> loader);
+
+    NotePageResponseDto getNotePage(UUID userId, String cursor, int limit, Supplier<NotePageResponseDto> loader);
+
+    // Drops the given notes and every cached list page of the user
+    void invalidate(UUID userId, Collection<UUID> noteIds);
+
+    NoteCacheStatsDto stats();
+}
@@ -0,0 +1,82 @@
+package org.vs.notesbe.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.vs.notesbe.dto.NoteCacheStatsDto;
+import org.vs.notesbe.dto.NotePageResponseDto;
+import org.vs.notesbe.dto.NoteResponseDto;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Shared cache on top of any Spring CacheManager (Redis, Hazelcast, ...), so all nodes see the same invalidations
+public class SpringNoteCache implements NoteCache {
+
+    static final String NOTES_CACHE = "notes";
+    static final String NOTE_PAGES_CACHE = "notePages";
+    static final String GENERATIONS_CACHE = "noteGenerations";
+
+    private final Cache notes;
+    private final Cache notePages;
+    private final Cache generations;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public SpringNoteCache(CacheManager cacheManager) {
+        this.notes = Objects.requireNonNull(cacheManager.getCache(NOTES_CACHE), NOTES_CACHE);
+        this.notePages = Objects.requireNonNull(cacheManager.getCache(NOTE_PAGES_CACHE), NOTE_PAGES_CACHE);
+        this.generations = Objects.requireNonNull(cacheManager.getCache(GENERATIONS_CACHE), GENERATIONS_CACHE);
+    }
+
+    @Override
+    public NoteResponseDto getNote(UUID userId, UUID noteId, Supplier<NoteResponseDto> loader) {
+        return readThrough(notes, userId + ":" + noteId, loader);
+    }
+
+    @Override
+    public NotePageResponseDto getNotePage(UUID userId, String cursor, int limit, Supplier<NotePageResponseDto> loader) {
+        String generation = generations.get(userId.toString(), () -> UUID.randomUUID().toString());
+        return readThrough(notePages, userId + ":" + generation + ":" + cursor + ":" + limit, loader);
+    }
+
+    @Override
+    public void invalidate(UUID userId, Collection<UUID> noteIds) {
+        generations.put(userId.toString(), UUID.randomUUID().toString());
+        for (UUID noteId : noteIds) {
+            notes.evict(userId + ":" + noteId);
+        }
+        evictions.add(noteIds.size() + 1L);
+    }
+
+    @Override
+    public NoteCacheStatsDto stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+
+        NoteCacheStatsDto dto = new NoteCacheStatsDto();
+        dto.setType("shared");
+        dto.setHits(hitCount);
+        dto.setMisses(missCount);
+        dto.setEvictions(evictions.sum());
+        dto.setHitRate(hitCount + missCount == 0 ? 1.0 : (double) hitCount / (hitCount + missCount));
+        return dto;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T readThrough(Cache cache, String key, Supplier<T> loader) {
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            hits.increment();
+            return (T) cached.get();
+        }
+        misses.increment();
+        T value = loader.get();
+        cache.put(key, value);
+        return value;
+    }
+}
@@ -0,0 +1,133 @@
+package org.vs.notesbe.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.vs.notesbe.datasource.ReplicaDataSource;
+import org.vs.notesbe.sharding.ShardDataSources;
+import org.vs.notesbe.sharding.ShardRoutingDataSource;
+import org.vs.notesbe.sharding.ShardingProperties;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// One pool per shard (spring.datasource is the primary shard, which also holds users) behind a router that
+// follows ShardContext. Writes and read-write transactions use the shard's pool; @Transactional(readOnly = true)
+// work on the primary shard goes to notes.datasource.replica-urls. The lazy proxy only picks a pool at the
+// first statement, once the shard and the transaction's read-only flag are known, and never takes a
+// connection for transactions that run none.
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class DataSourceConfig {
+
+    @Bean
+    public ShardDataSources shardDataSources(
+            DataSourceProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            ShardingProperties sharding
+    ) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        Map<String, DataSource> primaries = new LinkedHashMap<>();
+        Set<String> joining = new HashSet<>();
+        primaries.put(sharding.primaryShard(), primary);
+        for (ShardingProperties.Shard shard : sharding.shards()) {
+            if (shard.name() == null || shard.url() == null) {
+                throw new IllegalStateException("Every notes.sharding.shards entry needs a name and a url");
+            }
+            if (primaries.containsKey(shard.name())) {
+                throw new IllegalStateException("Duplicate shard name: " + shard.name());
+            }
+            primaries.put(shard.name(), shard(primary, shard, meterRegistry));
+            if (shard.joining()) {
+                joining.add(shard.name());
+            }
+        }
+
+        // The note tables are created here on every shard; Hibernate's ddl-auto only sees the primary shard
+        primaries.values().forEach(DataSourceConfig::migrateShard);
+
+        return new ShardDataSources(sharding.primaryShard(), primaries, joining);
+    }
+
+    @Bean
+    public DataSource dataSource(
+            ShardDataSources shards,
+            MeterRegistry meterRegistry,
+            @Value("${notes.datasource.replica-urls:}") List<String> replicaUrls
+    ) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(
+                new ShardRoutingDataSource(shards.primaryShard(), shards.primaries()));
+        if (!replicaUrls.isEmpty()) {
+            HikariDataSource primary = (HikariDataSource) shards.primary(shards.primaryShard());
+            List<DataSource> replicas = new ArrayList<>(replicaUrls.size());
+            for (int i = 0; i < replicaUrls.size(); i++) {
+                replicas.add(replica(primary, replicaUrls.get(i).trim(), "notes-replica-" + (i + 1), meterRegistry));
+            }
+            // Other shards have no replicas and serve their reads from their own pool
+            Map<String, DataSource> readTargets = new HashMap<>(shards.primaries());
+            readTargets.put(shards.primaryShard(), new ReplicaDataSource(primary, replicas));
+            proxy.setReadOnlyDataSource(new ShardRoutingDataSource(shards.primaryShard(), readTargets));
+        }
+        return proxy;
+    }
+
+    private static HikariDataSource shard(HikariDataSource primary, ShardingProperties.Shard shard, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("notes-" + shard.name());
+        dataSource.setJdbcUrl(shard.url());
+        dataSource.setUsername(shard.username() != null ? shard.username() : primary.getUsername());
+        dataSource.setPassword(shard.password() != null ? shard.password() : primary.getPassword());
+        dataSource.setDriverClassName(primary.getDriverClassName());
+        dataSource.setMaximumPoolSize(primary.getMaximumPoolSize());
+        dataSource.setConnectionTimeout(primary.getConnectionTimeout());
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+
+    private static HikariDataSource replica(HikariDataSource primary, String url, String poolName, MeterRegistry meterRegistry) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName(poolName);
+        replica.setJdbcUrl(url);
+        replica.setUsername(primary.getUsername());
+        replica.setPassword(primary.getPassword());
+        replica.setDriverClassName(primary.getDriverClassName());
+        replica.setMaximumPoolSize(primary.getMaximumPoolSize());
+        replica.setConnectionTimeout(primary.getConnectionTimeout());
+        replica.setReadOnly(true);
+        // Actuator cannot find the pools behind the routing DataSource, so every pool is instrumented here
+        replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return replica;
+    }
+
+    // Own history table, so it never mixes with the primary shard's db/migration history
+    private static void migrateShard(DataSource dataSource) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/shard")
+                .table("flyway_shard_history")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+}
@@ -0,0 +1,39 @@
+package org.vs.notesbe.config;
+
+import org.slf4j.MDC;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.vs.notesbe.logging.LogSamplingProperties;
+
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(LogSamplingProperties.class)
+public class LoggingConfig {
+
+    // Applied to the application task executor, so MVC async work (streamed exports) and @Async tasks
+    // log under the request id of the thread that handed them off
+    @Bean
+    public TaskDecorator mdcTaskDecorator() {
+        return task -> {
+            Map<String, String> context = MDC.getCopyOfContextMap();
+            return () -> {
+                Map<String, String> previous = MDC.getCopyOfContextMap();
+                if (context != null) {
+                    MDC.setContextMap(context);
+                }
+                try {
+                    task.run();
+                } finally {
+                    if (previous != null) {
+                        MDC.setContextMap(previous);
+                    } else {
+                        MDC.clear();
+                    }
+                }
+            };
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package org.vs.notesbe.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.vs.notesbe.cache.CaffeineNoteCache;
+import org.vs.notesbe.cache.NoteCache;
+import org.vs.notesbe.cache.SpringNoteCache;
+
+import java.time.Duration;
+
+@Configuration
+public class NoteCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "notes.cache.type", havingValue = "local", matchIfMissing = true)
+    public NoteCache localNoteCache(
+            @Value("${notes.cache.max-bytes:67108864}") long maxBytes,
+            @Value("${notes.cache.ttl:PT10M}") Duration ttl
+    ) {
+        return new CaffeineNoteCache(maxBytes, ttl);
+    }
+
+    // Uses whichever CacheManager the deployment provides, e.g. spring-boot-starter-data-redis
+    @Bean
+    @ConditionalOnProperty(name = "notes.cache.type", havingValue = "shared")
+    public NoteCache sharedNoteCache(CacheManager cacheManager) {
+        return new SpringNoteCache(cacheManager);
+    }
+
+    // Boot only auto-configures a CacheManager once caching is enabled
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "notes.cache.type", havingValue = "shared")
+    @EnableCaching
+    static class SharedCacheConfig {
+    }
+}
@@ -0,0 +1,36 @@
+package org.vs.notesbe.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.vs.notesbe.events.InMemoryNoteEventBus;
+import org.vs.notesbe.events.NoteEventBus;
+import org.vs.notesbe.events.PostgresNoteEventBus;
+import org.vs.notesbe.sharding.ShardDataSources;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class NoteEventsConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "notes.events.bus", havingValue = "local", matchIfMissing = true)
+    public NoteEventBus localNoteEventBus() {
+        return new InMemoryNoteEventBus();
+    }
+
+    // Every node listens on the primary shard, whichever shard the change was written to
+    @Bean
+    @ConditionalOnProperty(name = "notes.events.bus", havingValue = "postgres")
+    public NoteEventBus postgresNoteEventBus(
+            DataSource dataSource,
+            ShardDataSources shardDataSources,
+            @Value("${notes.events.publish-queue-size:10000}") int publishQueueSize
+    ) {
+        HikariDataSource primary = (HikariDataSource) shardDataSources.primary(shardDataSources.primaryShard());
+        return new PostgresNoteEventBus(dataSource, primary, shardDataSources.primaryShard(), publishQueueSize,
+                primary.getJdbcUrl(), primary.getUsername(), primary.getPassword());
+    }
+}
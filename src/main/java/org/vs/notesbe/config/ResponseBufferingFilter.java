@@ -0,0 +1,181 @@
+package org.vs.notesbe.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.Set;
+
+// Tomcat only applies server.compression.min-response-size when it knows the length, and compresses every
+// unsized response otherwise. API responses are held back up to that size: one that ends within it is sent
+// with a Content-Length (and uncompressed), a larger one streams on without one and is compressed. Streaming
+// endpoints are left alone. Responses also vary by Accept, as the same URL is served as JSON, CBOR or Smile.
+@Component
+public class ResponseBufferingFilter extends OncePerRequestFilter {
+
+    private static final Set<String> STREAMING_ENDPOINTS = Set.of("exportNotes", "subscribeNotes");
+
+    private final int threshold;
+
+    public ResponseBufferingFilter(@Value("${server.compression.min-response-size:2KB}") DataSize threshold) {
+        this.threshold = Math.toIntExact(threshold.toBytes());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith("/api/") || STREAMING_ENDPOINTS.contains(uri.substring(uri.lastIndexOf('/') + 1));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        ThresholdBufferingResponse responseWrapper = new ThresholdBufferingResponse(response, threshold);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } finally {
+            responseWrapper.finish();
+        }
+    }
+
+    private static final class ThresholdBufferingResponse extends HttpServletResponseWrapper {
+
+        private final int threshold;
+        private final ByteArrayOutputStream buffer;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+        // Set once the body outgrew the threshold; from then on writes go straight to the response
+        private ServletOutputStream target;
+
+        ThresholdBufferingResponse(HttpServletResponse response, int threshold) {
+            super(response);
+            this.threshold = threshold;
+            this.buffer = new ByteArrayOutputStream(Math.min(threshold, 1024));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            if (outputStream == null) {
+                outputStream = new ThresholdOutputStream();
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called");
+                }
+                outputStream = new ThresholdOutputStream();
+                writer = new PrintWriter(new OutputStreamWriter(outputStream, Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        // Nothing is committed while the body is held back
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target != null) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            buffer.reset();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            buffer.reset();
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (target == null) {
+                if (!isCommitted()) {
+                    setContentLength(buffer.size());
+                }
+                if (buffer.size() > 0) {
+                    getResponse().getOutputStream().write(buffer.toByteArray());
+                }
+            }
+        }
+
+        private void overflow() throws IOException {
+            target = getResponse().getOutputStream();
+            buffer.writeTo(target);
+            buffer.reset();
+        }
+
+        private final class ThresholdOutputStream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                if (target == null && buffer.size() + 1 > threshold) {
+                    overflow();
+                }
+                if (target != null) {
+                    target.write(b);
+                } else {
+                    buffer.write(b);
+                }
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (target == null && buffer.size() + len > threshold) {
+                    overflow();
+                }
+                if (target != null) {
+                    target.write(b, off, len);
+                } else {
+                    buffer.write(b, off, len);
+                }
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (target != null) {
+                    target.flush();
+                }
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                throw new UnsupportedOperationException("Buffered API responses are written blocking");
+            }
+        }
+    }
+}
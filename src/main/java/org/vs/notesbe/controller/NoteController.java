@@ -1,28 +1,53 @@
 package org.vs.notesbe.controller;
 
 import org.slf4j.Logger;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.vs.notesbe.dto.ApiResponse;
 import org.vs.notesbe.dto.DeleteMultipleRequestDto;
+import org.vs.notesbe.dto.DeleteMultipleResponseDto;
+import org.vs.notesbe.dto.NoteCacheStatsDto;
+import org.vs.notesbe.dto.NoteImportResponseDto;
+import org.vs.notesbe.dto.NotePageResponseDto;
+import org.vs.notesbe.dto.NotePatchRequestDto;
 import org.vs.notesbe.dto.NoteRequestDto;
 import org.vs.notesbe.dto.NoteResponseDto;
+import org.vs.notesbe.dto.NoteSearchResultDto;
+import org.vs.notesbe.dto.NoteSummaryPageResponseDto;
+import org.vs.notesbe.dto.NoteSyncResponseDto;
+import org.vs.notesbe.events.NoteEventHub;
 import org.vs.notesbe.exception.AddNoteException;
+import org.vs.notesbe.exception.InvalidCursorException;
+import org.vs.notesbe.exception.InvalidNotePatchException;
+import org.vs.notesbe.exception.InvalidNoteQueryException;
+import org.vs.notesbe.exception.NoteVersionConflictException;
+import org.vs.notesbe.service.NoteImportService;
 import org.vs.notesbe.service.NoteService;
-import org.vs.notesbe.util.JwtUtils;
+import org.vs.notesbe.service.NoteSyncService;
+import org.vs.notesbe.sharding.RoutingContext;
+import org.vs.notesbe.util.ETagUtils;
 import org.vs.notesbe.util.UserValidations;
 
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/notes")
@@ -30,28 +55,38 @@ public class NoteController {
 
     private static final Logger log = org.slf4j.LoggerFactory.getLogger(NoteController.class);
 
+    private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
     private final UserValidations userValidations;
     private final NoteService noteService;
-    private final JwtUtils jwtUtils;
-
-    public NoteController(UserValidations userValidations, NoteService noteService, JwtUtils jwtUtils) {
+    private final NoteImportService noteImportService;
+    private final NoteSyncService noteSyncService;
+    private final NoteEventHub noteEventHub;
+
+    public NoteController(
+            UserValidations userValidations,
+            NoteService noteService,
+            NoteImportService noteImportService,
+            NoteSyncService noteSyncService,
+            NoteEventHub noteEventHub
+    ) {
         this.userValidations = userValidations;
         this.noteService = noteService;
-        this.jwtUtils = jwtUtils;
+        this.noteImportService = noteImportService;
+        this.noteSyncService = noteSyncService;
+        this.noteEventHub = noteEventHub;
     }
 
     @PostMapping("/addNote")
     public ResponseEntity<ApiResponse<NoteResponseDto>> addNote(
-            @CookieValue String token,
+            @AuthenticationPrincipal UUID authenticatedUserId,
             @RequestParam UUID userId,
             @RequestBody NoteRequestDto addNoteRequestDto
     ) {
         try {
-            log.info("NOTE_CONTROLLER - ADD_NOTE ::: Received request to add note with cookie: {}", token);
+            log.info("NOTE_CONTROLLER - ADD_NOTE ::: Received request to add note for user ID: {}", userId);
 
-            String uIdString = jwtUtils.extractUserId(token);
-
-            ResponseEntity<ApiResponse<NoteResponseDto>> validationResponse = userValidations.validateUserToken(token, uIdString);
+            ResponseEntity<ApiResponse<NoteResponseDto>> validationResponse = userValidations.validateAuthenticatedUser(authenticatedUserId, userId);
             if (validationResponse != null) {
                 return validationResponse;
             }
@@ -72,30 +107,75 @@ public class NoteController {
         }
     }
 
-    @GetMapping("/getNotes")
-    public ResponseEntity<ApiResponse<List<NoteResponseDto>>> getNotes(
-            @CookieValue String token,
-            @RequestParam UUID userId
+    @PostMapping(value = "/importNotes", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<NoteImportResponseDto>> importNotes(
+            @AuthenticationPrincipal UUID authenticatedUserId,
+            @RequestParam UUID userId,
+            InputStream requestBody
     ) {
         try {
-            log.info("NOTE_CONTROLLER - GET_NOTES ::: Received request to get notes with cookie: {}", token);
+            log.info("NOTE_CONTROLLER - IMPORT_NOTES ::: Received request to import notes for user ID: {}", userId);
+
+            ResponseEntity<ApiResponse<NoteImportResponseDto>> validationResponse = userValidations.validateAuthenticatedUser(authenticatedUserId, userId);
+            if (validationResponse != null) {
+                return validationResponse;
+            }
 
-            String uIdString = jwtUtils.extractUserId(token);
+            NoteImportResponseDto importResult = noteImportService.importNotes(userId, requestBody);
 
-            ResponseEntity<ApiResponse<List<NoteResponseDto>>> validationResponse = userValidations.validateUserToken(token, uIdString);
+            log.info("NOTE_CONTROLLER - IMPORT_NOTES ::: Imported {} notes for user ID: {}", importResult.getTotalImported(), userId);
+
+            ApiResponse<NoteImportResponseDto> response = new ApiResponse<>(
+                    importResult.getTotalFailed() == 0,
+                    "Notes imported: " + importResult.getTotalImported() + ", failed: " + importResult.getTotalFailed(),
+                    importResult
+            );
+
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(response);
+        } catch (Exception e) {
+            log.error("NOTE_CONTROLLER - IMPORT_NOTES ::: Failed to import notes: {}", e.getMessage());
+
+            throw new AddNoteException("Failed to import notes: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/getNotes")
+    public ResponseEntity<ApiResponse<NotePageResponseDto>> getNotes(
+            @AuthenticationPrincipal UUID authenticatedUserId,
+            @RequestParam UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest
+    ) {
+        try {
+            log.info("NOTE_CONTROLLER - GET_NOTES ::: Received request to get notes for user ID: {}", userId);
+
+            ResponseEntity<ApiResponse<NotePageResponseDto>> validationResponse = userValidations.validateAuthenticatedUser(authenticatedUserId, userId);
             if (validationResponse != null) {
                 return validationResponse;
             }
 
-            List<NoteResponseDto> notes = noteService.getNotes(userId);
+            NotePageResponseDto notes = noteService.getNotes(userId, cursor, limit);
+
+            String eTag = ETagUtils.notePageETag(notes);
+            if (webRequest.checkNotModified(eTag)) {
+                log.info("NOTE_CONTROLLER - GET_NOTES ::: Notes not modified for user ID: {}", userId);
+                return null;
+            }
 
             log.info("NOTE_CONTROLLER - GET_NOTES ::: Notes retrieved successfully for user ID: {}", userId);
 
-            ApiResponse<List<NoteResponseDto>> response = new ApiResponse<>(true, "Notes retrieved successfully", notes);
+            ApiResponse<NotePageResponseDto> response = new ApiResponse<>(true, "Notes retrieved successfully", notes);
 
             return ResponseEntity
                     .status(HttpStatus.OK)
+                    .eTag(eTag)
                     .body(response);
+        } catch (InvalidCursorException e) {
+            // Surfaced as 400 so the client knows to restart from the first page
+            throw e;
         } catch (Exception e) {
             log.error("NOTE_CONTROLLER - GET_NOTES ::: Failed to retrieve notes: {}", e.getMessage());
 
@@ -103,30 +183,257 @@ public class NoteController {
         }
     }
 
+    @GetMapping("/getNoteSummaries")
+    public ResponseEntity<ApiResponse<NoteSummaryPageResponseDto>> getNoteSummaries(
+            @AuthenticationPrincipal UUID authenticatedUserId,
+            @RequestParam UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer previewLength
+    ) {
+        try {
+            log.info("NOTE_CONTROLLER - GET_NOTE_SUMMARIES ::: Received request to get note summaries for user ID: {}", userId);
+
+            ResponseEntity<ApiResponse<NoteSummaryPageResponseDto>> validationResponse = userValidations.validateAuthenticatedUser(authenticatedUserId, userId);
+            if (validationResponse != null) {
+                return validationResponse;
+            }
+
+            NoteSummaryPageResponseDto summaries = noteService.getNoteSummaries(userId, cursor, limit, previewLength);
+
+            log.info("NOTE_CONTROLLER - GET_NOTE_SUMMARIES ::: Note summaries retrieved successfully for user ID: {}", userId);
+
+            ApiResponse<NoteSummaryPageResponseDto> response = new ApiResponse<>(true, "Note summaries retrieved successfully", summaries);
+
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .body(response);
+        } catch (InvalidCursorException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("NOTE_CONTROLLER - GET_NOTE_SUMMARIES ::: Failed to retrieve note summaries: {}", e.getMessage());
+
+            throw new AddNoteException("Failed to retrieve note summaries: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/getRecentNotes")
+    public ResponseEntity<ApiResponse<List<NoteResponseDto>>> getRecentNotes(
+            @AuthenticationPrincipal UUID authenticatedUserId,
+            @RequestParam UUID userId,
+            @RequestParam(required = false) Instant modifiedSince,
+            @RequestParam(required = false) Instant createdFrom,
+            @RequestParam(required = false) Instant createdTo,
+            @RequestParam(required = false) Integer limit
+    ) {
+        try {
+            log.info("NOTE_CONTROLLER - GET_RECENT_NOTES ::: Received request to get recent notes for user ID: {}", userId);
+
+            ResponseEntity<ApiResponse<List<NoteResponseDto>>> validationResponse = userValidations.validateAuthenticatedUser(authenticatedUserId, userId);
+            if (validationResponse != null) {
+                return validationResponse;
+            }
+
+            List<NoteResponseDto> notes = noteService.getRecentNotes(userId, modifiedSince, createdFrom, createdTo, limit);
+
+            log.info("NOTE_CONTROLLER - GET_RECENT_NOTES ::: Recent notes retrieved successfully for user ID: {}", userId);
+
+            ApiResponse<List<NoteResponseDto>> response = new ApiResponse<>(true, "Notes retrieved successfully", notes);
+
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .body(response);
+        } catch (InvalidNoteQueryException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("NOTE_CONTROLLER - GET_RECENT_NOTES ::: Failed to retrieve recent notes: {}", e.getMessage());
+
+            throw new AddNoteException("Failed to retrieve recent notes: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/syncNotes")
+    public ResponseEntity<ApiResponse<NoteSyncResponseDto>> syncNotes(
+            @AuthenticationPrincipal UUID authenticatedUserId,
+            @RequestParam UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        try {
+            log.info("NOTE_CONTROLLER - SYNC_NOTES ::: Received request to sync notes for user ID: {}", userId);
+
+            ResponseEntity<ApiResponse<NoteSyncResponseDto>> validationResponse = userValidations.validateAuthenticatedUser(authenticatedUserId, userId);
+            if (validationResponse != null) {
+                return validationResponse;
+            }
+
+            NoteSyncResponseDto changes = noteSyncService.getChanges(userId, cursor, limit);
+
+            log.info("NOTE_CONTROLLER - SYNC_NOTES ::: Changes retrieved successfully for user ID: {}", userId);
+
+            ApiResponse<NoteSyncResponseDto> response = new ApiResponse<>(true, "Changes retrieved successfully", changes);
+
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .body(response);
+        } catch (InvalidCursorException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("NOTE_CONTROLLER - SYNC_NOTES ::: Failed to sync notes: {}", e.getMessage());
+
+            throw new AddNoteException("Failed to sync notes: " + e.getMessage());
+        }
+    }
+
+    // Push replacement for polling: changed/deleted events carry note ids and the sync version, and the client
+    // pulls the content with syncNotes. A resync event means events were missed and a sync is due anyway.
+    @GetMapping(value = "/subscribeNotes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeNotes(
+            @AuthenticationPrincipal UUID authenticatedUserId,
+            @RequestParam UUID userId
+    ) {
+        try {
+            log.info("NOTE_CONTROLLER - SUBSCRIBE_NOTES ::: Received request to subscribe to notes of user ID: {}", userId);
+
+            // Errors go without a body, which an event stream could not carry
+            ResponseEntity<ApiResponse<Object>> validationResponse = userValidations.validateAuthenticatedUser(authenticatedUserId, userId);
+            if (validationResponse != null) {
+                return ResponseEntity.status(validationResponse.getStatusCode()).build();
+            }
+
+            SseEmitter emitter = noteEventHub.subscribe(userId);
+
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    // Keeps reverse proxies from buffering the stream
+                    .header("X-Accel-Buffering", "no")
+                    .body(emitter);
+        } catch (Exception e) {
+            log.error("NOTE_CONTROLLER - SUBSCRIBE_NOTES ::: Failed to subscribe to notes: {}", e.getMessage());
+
+            throw new AddNoteException("Failed to subscribe to notes: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/searchNotes")
+    public ResponseEntity<ApiResponse<List<NoteSearchResultDto>>> searchNotes(
+            @AuthenticationPrincipal UUID authenticatedUserId,
+            @RequestParam UUID userId,
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit
+    ) {
+        try {
+            log.info("NOTE_CONTROLLER - SEARCH_NOTES ::: Received request to search notes for user ID: {}", userId);
+
+            ResponseEntity<ApiResponse<List<NoteSearchResultDto>>> validationResponse = userValidations.validateAuthenticatedUser(authenticatedUserId, userId);
+            if (validationResponse != null) {
+                return validationResponse;
+            }
+
+            List<NoteSearchResultDto> results = noteService.searchNotes(userId, q, limit);
+
+            log.info("NOTE_CONTROLLER - SEARCH_NOTES ::: Search completed for user ID: {}", userId);
+
+            ApiResponse<List<NoteSearchResultDto>> response = new ApiResponse<>(true, "Notes searched successfully", results);
+
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .body(response);
+        } catch (Exception e) {
+            log.error("NOTE_CONTROLLER - SEARCH_NOTES ::: Failed to search notes: {}", e.getMessage());
+
+            throw new AddNoteException("Failed to search notes: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/cacheStats")
+    public ResponseEntity<ApiResponse<NoteCacheStatsDto>> getCacheStats(
+            @AuthenticationPrincipal UUID authenticatedUserId
+    ) {
+        ResponseEntity<ApiResponse<NoteCacheStatsDto>> validationResponse = userValidations.validateAuthenticatedUser(authenticatedUserId);
+        if (validationResponse != null) {
+            return validationResponse;
+        }
+
+        ApiResponse<NoteCacheStatsDto> response = new ApiResponse<>(true, "Cache stats retrieved successfully", noteService.getCacheStats());
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(response);
+    }
+
+    @GetMapping(value = "/exportNotes", produces = NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportNotes(
+            @AuthenticationPrincipal UUID authenticatedUserId,
+            @RequestParam UUID userId,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        try {
+            log.info("NOTE_CONTROLLER - EXPORT_NOTES ::: Received request to export notes for user ID: {}", userId);
+
+            // Without a body: an ApiResponse cannot be written as NDJSON
+            ResponseEntity<ApiResponse<Object>> validationResponse = userValidations.validateAuthenticatedUser(authenticatedUserId, userId);
+            if (validationResponse != null) {
+                return ResponseEntity.status(validationResponse.getStatusCode()).build();
+            }
+
+            // The body is written on an MVC async thread, which has none of this request's thread-bound routing
+            RoutingContext routingContext = RoutingContext.capture();
+            StreamingResponseBody body = outputStream -> routingContext.call(() -> {
+                if (gzip) {
+                    try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, true)) {
+                        return noteService.exportNotes(userId, gzipOutputStream);
+                    }
+                }
+                return noteService.exportNotes(userId, outputStream);
+            });
+
+            ResponseEntity.BodyBuilder builder = ResponseEntity
+                    .status(HttpStatus.OK)
+                    .contentType(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"notes.ndjson\"");
+            if (gzip) {
+                builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+
+            return builder.body(body);
+        } catch (Exception e) {
+            log.error("NOTE_CONTROLLER - EXPORT_NOTES ::: Failed to export notes: {}", e.getMessage());
+
+            throw new AddNoteException("Failed to export notes: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/getNote")
     public ResponseEntity<ApiResponse<NoteResponseDto>> getNote(
-            @CookieValue String token,
+            @AuthenticationPrincipal UUID authenticatedUserId,
             @RequestParam UUID userId,
-            @RequestParam UUID noteId
+            @RequestParam UUID noteId,
+            WebRequest webRequest
     ) {
         try {
             log.info("NOTE_CONTROLLER - GET_NOTE ::: Received request to get note with ID for user {}: {}", noteId, userId);
 
-            String uIdString = jwtUtils.extractUserId(token);
-
-            ResponseEntity<ApiResponse<NoteResponseDto>> validationResponse = userValidations.validateUserToken(token, uIdString);
+            ResponseEntity<ApiResponse<NoteResponseDto>> validationResponse = userValidations.validateAuthenticatedUser(authenticatedUserId, userId);
             if (validationResponse != null) {
                 return validationResponse;
             }
 
             NoteResponseDto noteResponse = noteService.getNote(userId, noteId);
 
+            String eTag = ETagUtils.noteETag(noteResponse);
+            if (webRequest.checkNotModified(eTag)) {
+                log.info("NOTE_CONTROLLER - GET_NOTE ::: Note with ID {} not modified", noteId);
+                return null;
+            }
+
             log.info("NOTE_CONTROLLER - GET_NOTE ::: Note retrieved successfully with ID: {}", noteResponse.getNoteId());
 
             ApiResponse<NoteResponseDto> response = new ApiResponse<>(true, "Note retrieved successfully", noteResponse);
 
             return ResponseEntity
                     .status(HttpStatus.OK)
+                    .eTag(eTag)
                     .body(response);
         } catch (Exception e) {
             log.error("NOTE_CONTROLLER - GET_NOTE ::: Failed to retrieve note: {}", e.getMessage());
@@ -137,17 +444,15 @@ public class NoteController {
 
     @PutMapping("/editNote")
     public ResponseEntity<ApiResponse<NoteResponseDto>> editNote(
-            @CookieValue String token,
+            @AuthenticationPrincipal UUID authenticatedUserId,
             @RequestParam UUID userId,
             @RequestParam UUID noteId,
             @RequestBody NoteRequestDto editNoteRequestDto
     ) {
         try {
-            log.info("NOTE_CONTROLLER - EDIT_NOTE ::: Received request to edit note with cookie: {}", token);
+            log.info("NOTE_CONTROLLER - EDIT_NOTE ::: Received request to edit note for user ID: {}", userId);
 
-            String uIdString = jwtUtils.extractUserId(token);
-
-            ResponseEntity<ApiResponse<NoteResponseDto>> validationResponse = userValidations.validateUserToken(token, uIdString);
+            ResponseEntity<ApiResponse<NoteResponseDto>> validationResponse = userValidations.validateAuthenticatedUser(authenticatedUserId, userId);
             if (validationResponse != null) {
                 return validationResponse;
             }
@@ -168,18 +473,50 @@ public class NoteController {
         }
     }
 
+    @PatchMapping("/patchNote")
+    public ResponseEntity<ApiResponse<NoteResponseDto>> patchNote(
+            @AuthenticationPrincipal UUID authenticatedUserId,
+            @RequestParam UUID userId,
+            @RequestParam UUID noteId,
+            @RequestBody NotePatchRequestDto notePatchRequestDto
+    ) {
+        try {
+            log.info("NOTE_CONTROLLER - PATCH_NOTE ::: Received request to patch note for user ID: {}", userId);
+
+            ResponseEntity<ApiResponse<NoteResponseDto>> validationResponse = userValidations.validateAuthenticatedUser(authenticatedUserId, userId);
+            if (validationResponse != null) {
+                return validationResponse;
+            }
+
+            NoteResponseDto patchedNote = noteService.patchNote(userId, noteId, notePatchRequestDto);
+
+            log.info("NOTE_CONTROLLER - PATCH_NOTE ::: Note patched successfully with ID: {}", patchedNote.getNoteId());
+
+            ApiResponse<NoteResponseDto> response = new ApiResponse<>(true, "Note patched successfully", patchedNote);
+
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .body(response);
+        } catch (NoteVersionConflictException | InvalidNotePatchException e) {
+            // Surfaced as 409 / 400 so the client knows to rebase or fix its edits
+            throw e;
+        } catch (Exception e) {
+            log.error("NOTE_CONTROLLER - PATCH_NOTE ::: Failed to patch note: {}", e.getMessage());
+
+            throw new AddNoteException("Failed to patch note: " + e.getMessage());
+        }
+    }
+
     @DeleteMapping("/deleteNote")
     public ResponseEntity<ApiResponse<Object>> deleteNote(
-            @CookieValue String token,
+            @AuthenticationPrincipal UUID authenticatedUserId,
             @RequestParam UUID userId,
             @RequestParam UUID noteId
     ) {
         try {
             log.info("NOTE_CONTROLLER - DELETE_NOTE ::: Received request to delete note with ID for user {}: {}", noteId, userId);
 
-            String uIdString = jwtUtils.extractUserId(token);
-
-            ResponseEntity<ApiResponse<Object>> validationResponse = userValidations.validateUserToken(token, uIdString);
+            ResponseEntity<ApiResponse<Object>> validationResponse = userValidations.validateAuthenticatedUser(authenticatedUserId, userId);
             if (validationResponse != null) {
                 return validationResponse;
             }
@@ -201,26 +538,24 @@ public class NoteController {
     }
 
     @PostMapping("/deleteMultipleNotes")
-    public ResponseEntity<ApiResponse<Object>> deleteMultipleNotes(
-            @CookieValue String token,
+    public ResponseEntity<ApiResponse<DeleteMultipleResponseDto>> deleteMultipleNotes(
+            @AuthenticationPrincipal UUID authenticatedUserId,
             @RequestParam UUID userId,
             @RequestBody DeleteMultipleRequestDto deleteMultipleRequestDto
     ) {
         try {
             log.info("NOTE_CONTROLLER - DELETE_MULTIPLE_NOTES ::: Received request to delete multiple notes for user ID: {}", userId);
 
-            String uIdString = jwtUtils.extractUserId(token);
-
-            ResponseEntity<ApiResponse<Object>> validationResponse = userValidations.validateUserToken(token, uIdString);
+            ResponseEntity<ApiResponse<DeleteMultipleResponseDto>> validationResponse = userValidations.validateAuthenticatedUser(authenticatedUserId, userId);
             if (validationResponse != null) {
                 return validationResponse;
             }
 
-            noteService.deleteMultipleNotes(userId, deleteMultipleRequestDto);
+            DeleteMultipleResponseDto deleteResult = noteService.deleteMultipleNotes(userId, deleteMultipleRequestDto);
 
             log.info("NOTE_CONTROLLER - DELETE_MULTIPLE_NOTES ::: Multiple notes deleted successfully for user ID: {}", userId);
 
-            ApiResponse<Object> response = new ApiResponse<>(true, "Multiple notes deleted successfully", null);
+            ApiResponse<DeleteMultipleResponseDto> response = new ApiResponse<>(true, "Multiple notes deleted successfully", deleteResult);
 
             return ResponseEntity
                     .status(HttpStatus.OK)
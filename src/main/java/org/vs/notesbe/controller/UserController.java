@@ -6,16 +6,21 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.vs.notesbe.dto.ApiResponse;
+import org.vs.notesbe.dto.UserAvailabilityResponseDto;
 import org.vs.notesbe.dto.UserSignInRequestDto;
 import org.vs.notesbe.dto.UserSignUpRequestDto;
+import org.vs.notesbe.exception.PasswordHashingBusyException;
 import org.vs.notesbe.exception.SigninException;
 import org.vs.notesbe.exception.SignupException;
 import org.vs.notesbe.model.User;
+import org.vs.notesbe.service.UserAvailabilityService;
 import org.vs.notesbe.service.UserService;
 import org.vs.notesbe.util.JwtUtils;
 
@@ -26,10 +31,34 @@ public class UserController {
     private static final Logger log = LoggerFactory.getLogger(UserController.class);
     private final UserService userService;
     private final JwtUtils jwtUtils;
+    private final UserAvailabilityService userAvailabilityService;
 
-    public UserController(UserService userService, JwtUtils jwtUtils) {
+    public UserController(UserService userService, JwtUtils jwtUtils, UserAvailabilityService userAvailabilityService) {
         this.userService = userService;
         this.jwtUtils = jwtUtils;
+        this.userAvailabilityService = userAvailabilityService;
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<ApiResponse<UserAvailabilityResponseDto>> checkAvailability(
+            @RequestParam(required = false) String userName,
+            @RequestParam(required = false) String email
+    ) {
+        if (userName == null && email == null) {
+            ApiResponse<UserAvailabilityResponseDto> response = new ApiResponse<>(false, "userName or email is required", null);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+
+        UserAvailabilityResponseDto availability = new UserAvailabilityResponseDto();
+        if (userName != null) {
+            availability.setUserNameAvailable(userAvailabilityService.isUserNameAvailable(userName));
+        }
+        if (email != null) {
+            availability.setEmailAvailable(userAvailabilityService.isEmailAvailable(email));
+        }
+
+        ApiResponse<UserAvailabilityResponseDto> response = new ApiResponse<>(true, "Availability checked", availability);
+        return ResponseEntity.status(HttpStatus.OK).body(response);
     }
 
     @PostMapping("/signup")
@@ -44,6 +73,8 @@ public class UserController {
             return ResponseEntity
                     .status(HttpStatus.CREATED)
                     .body(response);
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (Exception e) {
             log.error("USER_CONTROLLER - SIGNUP ::: Signup failed for user {}: {}", userSignUpRequestDto.getUserName(), e.getMessage());
 
@@ -68,11 +99,12 @@ public class UserController {
                     .build();
 
             ApiResponse<String> response = new ApiResponse<>(true, "Signin successful", user.getUserName());
-            log.info("USER_CONTROLLER - SIGNIN ::: Generated cookie {}", cookie);
             return ResponseEntity
                     .status(HttpStatus.OK)
                     .header(HttpHeaders.SET_COOKIE, cookie.toString())
                     .body(response);
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (Exception e) {
             log.error("USER_CONTROLLER - SIGNIN ::: Signin failed for user {}: {}", userSignInRequestDto.getUserName(), e.getMessage());
 
@@ -0,0 +1,55 @@
+package org.vs.notesbe.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+
+// Runs after the security chain; pins the request to the primary when the user it reads for just wrote
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        UUID userId = resolveUserId(request);
+        if (userId == null || !tracker.wroteRecently(userId)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ReplicaDataSource.pinToPrimary();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaDataSource.unpin();
+        }
+    }
+
+    // Note endpoints name the owner in the userId parameter; fall back to the authenticated user
+    private static UUID resolveUserId(HttpServletRequest request) {
+        String userId = request.getParameter("userId");
+        if (userId != null) {
+            try {
+                return UUID.fromString(userId);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof UUID principal ? principal : null;
+    }
+}
@@ -0,0 +1,37 @@
+package org.vs.notesbe.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+// Remembers whose notes changed recently, so their reads can skip replicas that may not have caught up
+@Component
+public class ReadYourWritesTracker {
+
+    private final Cache<UUID, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(
+            @Value("${notes.datasource.replica-urls:}") List<String> replicaUrls,
+            @Value("${notes.datasource.read-your-writes-window:PT5S}") Duration window
+    ) {
+        // Without replicas every read already goes to the primary
+        this.recentWriters = replicaUrls.isEmpty() || window.isZero()
+                ? null
+                : Caffeine.newBuilder().expireAfterWrite(window).build();
+    }
+
+    public void recordWrite(UUID userId) {
+        if (recentWriters != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public boolean wroteRecently(UUID userId) {
+        return recentWriters != null && recentWriters.getIfPresent(userId) != null;
+    }
+}
@@ -0,0 +1,12 @@
+package org.vs.notesbe.dto;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class DeleteMultipleResponseDto {
+    private Integer deletedCount;
+    private List<UUID> notFoundIds;
+}
@@ -0,0 +1,13 @@
+package org.vs.notesbe.dto;
+
+import lombok.Data;
+
+@Data
+public class NoteCacheStatsDto {
+    private String type;
+    private Long hits;
+    private Long misses;
+    private Long evictions;
+    private Double hitRate;
+    private Long estimatedSize;
+}
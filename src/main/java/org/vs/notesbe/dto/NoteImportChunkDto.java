@@ -0,0 +1,12 @@
+package org.vs.notesbe.dto;
+
+import lombok.Data;
+
+@Data
+public class NoteImportChunkDto {
+    private Integer chunkIndex;
+    private Integer received;
+    private Integer imported;
+    private Integer failed;
+    private String error;
+}
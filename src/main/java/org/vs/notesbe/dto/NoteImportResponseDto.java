@@ -0,0 +1,14 @@
+package org.vs.notesbe.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class NoteImportResponseDto {
+    private Integer totalReceived = 0;
+    private Integer totalImported = 0;
+    private Integer totalFailed = 0;
+    private List<NoteImportChunkDto> chunks = new ArrayList<>();
+}
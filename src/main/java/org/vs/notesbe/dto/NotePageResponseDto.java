@@ -0,0 +1,16 @@
+package org.vs.notesbe.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+public class NotePageResponseDto implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<NoteResponseDto> notes;
+    private String nextCursor;
+    private Boolean hasMore;
+}
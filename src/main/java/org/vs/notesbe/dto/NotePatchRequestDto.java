@@ -0,0 +1,12 @@
+package org.vs.notesbe.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class NotePatchRequestDto {
+    private Long baseVersion;
+    private String title;
+    private List<NoteTextEditDto> bodyEdits;
+}
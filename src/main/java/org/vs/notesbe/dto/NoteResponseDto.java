@@ -2,12 +2,19 @@ package org.vs.notesbe.dto;
 
 import lombok.Data;
 
+import java.io.Serializable;
+import java.time.Instant;
 import java.util.UUID;
 
+// Stored by the shared note cache, whose providers serialize their values
 @Data
-public class NoteResponseDto {
+public class NoteResponseDto implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
     private UUID noteId;
     private String title;
     private String body;
-    private String updatedAt;
+    private Instant updatedAt;
+    private Long version;
 }
@@ -0,0 +1,15 @@
+package org.vs.notesbe.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+public class NoteSearchResultDto {
+    private UUID noteId;
+    private String title;
+    private String snippet;
+    private Double score;
+    private Instant updatedAt;
+}
@@ -0,0 +1,14 @@
+package org.vs.notesbe.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+public class NoteSummaryDto {
+    private UUID noteId;
+    private String title;
+    private String preview;
+    private Instant updatedAt;
+}
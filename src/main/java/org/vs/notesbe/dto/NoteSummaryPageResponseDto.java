@@ -0,0 +1,12 @@
+package org.vs.notesbe.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class NoteSummaryPageResponseDto {
+    private List<NoteSummaryDto> summaries;
+    private String nextCursor;
+    private Boolean hasMore;
+}
@@ -0,0 +1,15 @@
+package org.vs.notesbe.dto;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class NoteSyncResponseDto {
+    private List<NoteResponseDto> changed;
+    private List<UUID> deleted;
+    private String cursor;
+    private Boolean hasMore;
+    private Boolean resetRequired;
+}
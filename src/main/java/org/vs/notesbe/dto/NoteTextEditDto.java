@@ -0,0 +1,11 @@
+package org.vs.notesbe.dto;
+
+import lombok.Data;
+
+// Replace deleteCount chars at offset (UTF-16 index into the base version's body) with insert
+@Data
+public class NoteTextEditDto {
+    private Integer offset;
+    private Integer deleteCount;
+    private String insert;
+}
@@ -0,0 +1,9 @@
+package org.vs.notesbe.dto;
+
+import lombok.Data;
+
+@Data
+public class UserAvailabilityResponseDto {
+    private Boolean userNameAvailable;
+    private Boolean emailAvailable;
+}
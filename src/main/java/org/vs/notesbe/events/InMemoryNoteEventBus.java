@@ -0,0 +1,38 @@
+package org.vs.notesbe.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.vs.notesbe.util.TransactionCallbacks;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Single-node bus that delivers on the publishing thread once the transaction commits; also the one to use in tests
+public class InMemoryNoteEventBus implements NoteEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryNoteEventBus.class);
+
+    private final List<Consumer<NoteChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(NoteChangeEvent event) {
+        TransactionCallbacks.afterCommit(() -> deliver(event));
+    }
+
+    @Override
+    public void subscribe(Consumer<NoteChangeEvent> listener) {
+        listeners.add(listener);
+    }
+
+    // Hands an event to this node's listeners
+    protected void deliver(NoteChangeEvent event) {
+        for (Consumer<NoteChangeEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                log.error("NOTE_EVENT_BUS - PUBLISH ::: Listener failed for {} event of user ID {}", event.type(), event.userId(), e);
+            }
+        }
+    }
+}
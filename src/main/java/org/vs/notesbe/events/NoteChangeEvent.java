@@ -0,0 +1,30 @@
+package org.vs.notesbe.events;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// What subscribers are told: which notes changed or went away, and the sync version that did it. Clients
+// fetch the content through syncNotes, so events stay small whatever the size of the notes.
+public record NoteChangeEvent(@JsonIgnore UUID userId, String type, List<UUID> noteIds, long syncVersion) {
+
+    public static final String CHANGED = "changed";
+    public static final String DELETED = "deleted";
+    // Events may have been missed (bus reconnect, slow-consumer eviction): sync from the last cursor
+    public static final String RESYNC = "resync";
+
+    public static NoteChangeEvent changed(UUID userId, long syncVersion, Collection<UUID> noteIds) {
+        return new NoteChangeEvent(userId, CHANGED, List.copyOf(noteIds), syncVersion);
+    }
+
+    public static NoteChangeEvent deleted(UUID userId, long syncVersion, Collection<UUID> noteIds) {
+        return new NoteChangeEvent(userId, DELETED, List.copyOf(noteIds), syncVersion);
+    }
+
+    // A null user means every subscriber on the node
+    public static NoteChangeEvent resync(UUID userId) {
+        return new NoteChangeEvent(userId, RESYNC, List.of(), 0);
+    }
+}
@@ -0,0 +1,14 @@
+package org.vs.notesbe.events;
+
+import java.util.function.Consumer;
+
+// Carries note changes to the subscribers of every node, including the node that published them
+public interface NoteEventBus {
+
+    // Called inside the write transaction that makes the change: subscribers hear about it once it commits and
+    // never if it rolls back. Outside a transaction the event goes out right away. Must not throw.
+    void publish(NoteChangeEvent event);
+
+    // Listeners run on the bus's delivery thread and must not block
+    void subscribe(Consumer<NoteChangeEvent> listener);
+}
@@ -0,0 +1,188 @@
+package org.vs.notesbe.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+// This node's SSE subscriptions. Delivery from the bus only offers events to bounded per-connection
+// queues, so a slow client never holds up the others; each connection has a virtual thread that drains
+// its queue into the socket and sends heartbeats while idle. A client whose queue fills up is evicted:
+// it is sent a resync event if its socket still takes one, and is expected to reconnect and sync.
+@Component
+public class NoteEventHub {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteEventHub.class);
+
+    // Wakes a connection's writer so it notices it was closed or evicted
+    private static final NoteChangeEvent WAKE_UP = new NoteChangeEvent(null, "wake-up", List.of(), 0);
+
+    private final Map<UUID, List<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final int bufferSize;
+    private final int maxConnectionsPerUser;
+    private final Duration heartbeatInterval;
+    private final Duration maxConnectionAge;
+    private final Counter evictions;
+
+    public NoteEventHub(
+            NoteEventBus noteEventBus,
+            MeterRegistry meterRegistry,
+            @Value("${notes.events.buffer-size:64}") int bufferSize,
+            @Value("${notes.events.max-connections-per-user:5}") int maxConnectionsPerUser,
+            @Value("${notes.events.heartbeat-interval:PT15S}") Duration heartbeatInterval,
+            @Value("${notes.events.max-connection-age:PT30M}") Duration maxConnectionAge
+    ) {
+        this.bufferSize = bufferSize;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.heartbeatInterval = heartbeatInterval;
+        this.maxConnectionAge = maxConnectionAge;
+        this.evictions = Counter.builder("notes.events.evictions")
+                .description("SSE subscribers dropped for not keeping up")
+                .register(meterRegistry);
+        Gauge.builder("notes.events.subscriptions", this, NoteEventHub::connectionCount)
+                .description("Open SSE subscriptions on this node")
+                .register(meterRegistry);
+
+        noteEventBus.subscribe(this::dispatch);
+    }
+
+    public SseEmitter subscribe(UUID userId) {
+        Subscription subscription = new Subscription(userId, new SseEmitter(maxConnectionAge.toMillis()));
+
+        List<Subscription> userSubscriptions = subscriptions.compute(userId, (id, existing) -> {
+            List<Subscription> list = existing != null ? existing : new CopyOnWriteArrayList<>();
+            list.add(subscription);
+            return list;
+        });
+        // A user past the limit is most likely leaking tabs; the oldest connection goes
+        if (userSubscriptions.size() > maxConnectionsPerUser) {
+            userSubscriptions.get(0).close();
+        }
+
+        subscription.emitter.onCompletion(() -> remove(subscription));
+        subscription.emitter.onError(e -> remove(subscription));
+        subscription.emitter.onTimeout(subscription::close);
+
+        Thread.ofVirtual().name("note-events-" + userId).start(subscription::run);
+
+        log.info("NOTE_EVENT_HUB - SUBSCRIBE ::: User ID {} subscribed, {} connections for this user",
+                userId, userSubscriptions.size());
+
+        return subscription.emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.values().forEach(list -> list.forEach(Subscription::close));
+    }
+
+    private void dispatch(NoteChangeEvent event) {
+        if (event.userId() == null) {
+            subscriptions.values().forEach(list -> list.forEach(subscription -> subscription.offer(event)));
+            return;
+        }
+        List<Subscription> userSubscriptions = subscriptions.get(event.userId());
+        if (userSubscriptions != null) {
+            userSubscriptions.forEach(subscription -> subscription.offer(event));
+        }
+    }
+
+    private void remove(Subscription subscription) {
+        subscription.closed = true;
+        subscriptions.computeIfPresent(subscription.userId, (id, list) -> {
+            list.remove(subscription);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private double connectionCount() {
+        return subscriptions.values().stream().mapToInt(List::size).sum();
+    }
+
+    private final class Subscription {
+
+        private final UUID userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<NoteChangeEvent> queue;
+        private volatile boolean closed;
+        private volatile boolean evicted;
+
+        private Subscription(UUID userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        // Called from the bus thread: never blocks
+        void offer(NoteChangeEvent event) {
+            if (closed || evicted || queue.offer(event)) {
+                return;
+            }
+            evicted = true;
+            evictions.increment();
+            queue.clear();
+            queue.offer(WAKE_UP);
+            log.warn("NOTE_EVENT_HUB - DISPATCH ::: Evicting slow subscriber of user ID {}", userId);
+        }
+
+        void close() {
+            closed = true;
+            queue.offer(WAKE_UP);
+        }
+
+        void run() {
+            try {
+                // Commits the response, so the client sees the stream open before the first change
+                emitter.send(SseEmitter.event().comment("subscribed"));
+                while (!closed) {
+                    NoteChangeEvent event = queue.poll(heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    if (evicted) {
+                        send(NoteChangeEvent.resync(userId));
+                        break;
+                    }
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else if (event != WAKE_UP) {
+                        send(event);
+                    }
+                }
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter already completed; the container cleans up the request
+                log.debug("NOTE_EVENT_HUB - SEND ::: Connection of user ID {} closed: {}", userId, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                emitter.complete();
+            } finally {
+                remove(this);
+            }
+        }
+
+        private void send(NoteChangeEvent event) throws IOException {
+            SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                    .name(event.type())
+                    .data(event, MediaType.APPLICATION_JSON);
+            if (event.syncVersion() > 0) {
+                builder.id(Long.toString(event.syncVersion()));
+            }
+            emitter.send(builder);
+        }
+    }
+}
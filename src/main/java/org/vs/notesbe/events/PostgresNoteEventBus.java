@@ -0,0 +1,205 @@
+package org.vs.notesbe.events;
+
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.vs.notesbe.sharding.ShardContext;
+import org.vs.notesbe.util.TransactionCallbacks;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Cross-node bus over LISTEN/NOTIFY on the primary shard: every node listens on one channel and also
+// receives its own notifications. The listener holds a dedicated connection outside the pool. NOTIFY
+// payloads are capped at 8000 bytes, so events with many note ids are split. Notifications sent while a
+// node is reconnecting are lost to it, so after reconnecting it tells all its subscribers to resync.
+//
+// A write on the primary shard sends its NOTIFY on its own connection, and Postgres delivers it on commit.
+// Writes on other shards queue their events after commit for a single publisher thread, so a write never
+// needs a second connection while it holds its own. When the queue is full, events are dropped: the changes
+// still reach clients through their next sync.
+public class PostgresNoteEventBus extends InMemoryNoteEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresNoteEventBus.class);
+
+    private static final String CHANNEL = "note_events";
+    private static final int MAX_IDS_PER_NOTIFICATION = 150;
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(2);
+
+    private final JdbcTemplate transactionJdbcTemplate;
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final String primaryShard;
+    private final BlockingQueue<NoteChangeEvent> publishQueue;
+    private final Thread publisherThread;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Thread listenerThread;
+    private volatile boolean running = true;
+
+    // transactionDataSource is the one transactions are bound to; primaryDataSource is the primary shard's pool
+    public PostgresNoteEventBus(DataSource transactionDataSource, DataSource primaryDataSource, String primaryShard,
+                                int publishQueueSize, String url, String username, String password) {
+        this.transactionJdbcTemplate = new JdbcTemplate(transactionDataSource);
+        this.primaryJdbcTemplate = new JdbcTemplate(primaryDataSource);
+        this.primaryShard = primaryShard;
+        this.publishQueue = new ArrayBlockingQueue<>(publishQueueSize);
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.listenerThread = new Thread(this::listen, "note-event-listener");
+        this.listenerThread.setDaemon(true);
+        this.listenerThread.start();
+        this.publisherThread = Thread.ofVirtual().name("note-event-publisher").start(this::drainPublishQueue);
+    }
+
+    @Override
+    public void publish(NoteChangeEvent event) {
+        if (inPrimaryShardWriteTransaction()) {
+            notify(transactionJdbcTemplate, event);
+        } else {
+            TransactionCallbacks.afterCommit(() -> enqueue(event));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        listenerThread.interrupt();
+        publisherThread.interrupt();
+    }
+
+    private boolean inPrimaryShardWriteTransaction() {
+        String shard = ShardContext.current();
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && (shard == null || shard.equals(primaryShard));
+    }
+
+    private void enqueue(NoteChangeEvent event) {
+        if (!publishQueue.offer(event)) {
+            log.warn("NOTE_EVENT_BUS - PUBLISH ::: Publish queue full, dropping {} event for user ID {}",
+                    event.type(), event.userId());
+        }
+    }
+
+    private void drainPublishQueue() {
+        while (running) {
+            try {
+                notify(primaryJdbcTemplate, publishQueue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static void notify(JdbcTemplate jdbcTemplate, NoteChangeEvent event) {
+        try {
+            for (String payload : encode(event)) {
+                jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL, payload);
+            }
+        } catch (DataAccessException e) {
+            // Only the push is lost; the change itself shows up in the client's next sync
+            log.error("NOTE_EVENT_BUS - PUBLISH ::: Failed to publish {} event for user ID {}: {}",
+                    event.type(), event.userId(), e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnecting) {
+                    log.info("NOTE_EVENT_BUS - LISTEN ::: Reconnected, asking subscribers to resync");
+                    deliver(NoteChangeEvent.resync(null));
+                }
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        NoteChangeEvent event = decode(notification.getParameter());
+                        if (event != null) {
+                            deliver(event);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("NOTE_EVENT_BUS - LISTEN ::: Lost the listener connection, retrying in {}: {}", RECONNECT_DELAY, e.getMessage());
+                reconnecting = true;
+                try {
+                    Thread.sleep(RECONNECT_DELAY);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // userId|type|syncVersion|id,id,...
+    private static List<String> encode(NoteChangeEvent event) {
+        List<String> payloads = new ArrayList<>();
+        List<UUID> noteIds = event.noteIds();
+        int from = 0;
+        do {
+            List<UUID> chunk = noteIds.subList(from, Math.min(from + MAX_IDS_PER_NOTIFICATION, noteIds.size()));
+            StringBuilder payload = new StringBuilder(64 + chunk.size() * 37)
+                    .append(event.userId() == null ? "" : event.userId()).append('|')
+                    .append(event.type()).append('|')
+                    .append(event.syncVersion()).append('|');
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    payload.append(',');
+                }
+                payload.append(chunk.get(i));
+            }
+            payloads.add(payload.toString());
+            from += MAX_IDS_PER_NOTIFICATION;
+        } while (from < noteIds.size());
+        return payloads;
+    }
+
+    private static NoteChangeEvent decode(String payload) {
+        String[] parts = payload.split("\\|", -1);
+        try {
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("expected 4 fields, got " + parts.length);
+            }
+            UUID userId = parts[0].isEmpty() ? null : UUID.fromString(parts[0]);
+            List<UUID> noteIds = new ArrayList<>();
+            if (!parts[3].isEmpty()) {
+                for (String noteId : parts[3].split(",")) {
+                    noteIds.add(UUID.fromString(noteId));
+                }
+            }
+            return new NoteChangeEvent(userId, parts[1], List.copyOf(noteIds), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            log.warn("NOTE_EVENT_BUS - LISTEN ::: Ignoring malformed notification {}: {}", payload, e.getMessage());
+            return null;
+        }
+    }
+}
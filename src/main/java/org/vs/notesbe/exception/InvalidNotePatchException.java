@@ -0,0 +1,7 @@
+package org.vs.notesbe.exception;
+
+public class InvalidNotePatchException extends RuntimeException {
+    public InvalidNotePatchException(String message) {
+        super(message);
+    }
+}
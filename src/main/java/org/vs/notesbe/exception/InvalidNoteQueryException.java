@@ -0,0 +1,7 @@
+package org.vs.notesbe.exception;
+
+public class InvalidNoteQueryException extends RuntimeException {
+    public InvalidNoteQueryException(String message) {
+        super(message);
+    }
+}
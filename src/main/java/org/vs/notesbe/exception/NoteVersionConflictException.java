@@ -0,0 +1,18 @@
+package org.vs.notesbe.exception;
+
+import org.vs.notesbe.dto.NoteResponseDto;
+
+public class NoteVersionConflictException extends RuntimeException {
+
+    // The note as it is now, so the client can rebase without another round trip
+    private final NoteResponseDto currentNote;
+
+    public NoteVersionConflictException(String message, NoteResponseDto currentNote) {
+        super(message);
+        this.currentNote = currentNote;
+    }
+
+    public NoteResponseDto getCurrentNote() {
+        return currentNote;
+    }
+}
@@ -0,0 +1,7 @@
+package org.vs.notesbe.exception;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
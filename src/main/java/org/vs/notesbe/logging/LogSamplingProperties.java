@@ -0,0 +1,22 @@
+package org.vs.notesbe.logging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Fraction of successful requests per endpoint (last path segment, e.g. getNotes) whose INFO logs are kept
+@ConfigurationProperties(prefix = "notes.logging.sampling")
+public record LogSamplingProperties(@DefaultValue("1.0") double defaultRate, Map<String, Double> rates) {
+
+    public LogSamplingProperties {
+        rates = rates == null ? Map.of() : rates.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(e -> e.getKey().toLowerCase(Locale.ROOT), Map.Entry::getValue));
+    }
+
+    public double rateFor(String endpoint) {
+        return rates.getOrDefault(endpoint.toLowerCase(Locale.ROOT), defaultRate);
+    }
+}
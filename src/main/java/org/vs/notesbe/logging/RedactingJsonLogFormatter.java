@@ -0,0 +1,47 @@
+package org.vs.notesbe.logging;
+
+import ch.qos.logback.classic.pattern.ThrowableProxyConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import org.springframework.boot.json.JsonWriter;
+import org.springframework.boot.logging.structured.StructuredLogFormatter;
+
+import java.time.Instant;
+import java.util.regex.Pattern;
+
+// One JSON object per line; anything shaped like a JWT or a token cookie is masked before it is written
+public class RedactingJsonLogFormatter implements StructuredLogFormatter<ILoggingEvent> {
+
+    private static final Pattern JWT = Pattern.compile("eyJ[\\w-]+\\.[\\w-]+\\.[\\w-]*");
+    private static final Pattern TOKEN_COOKIE = Pattern.compile("(?i)(token=)[^;\\s,]+");
+    private static final String REDACTED = "[REDACTED]";
+
+    private final ThrowableProxyConverter throwableConverter = new ThrowableProxyConverter();
+
+    private final JsonWriter<ILoggingEvent> writer = JsonWriter.<ILoggingEvent>of(members -> {
+        members.add("@timestamp", event -> Instant.ofEpochMilli(event.getTimeStamp()).toString());
+        members.add("level", event -> event.getLevel().toString());
+        members.add("thread", ILoggingEvent::getThreadName);
+        members.add("logger", ILoggingEvent::getLoggerName);
+        members.add("requestId", event -> event.getMDCPropertyMap().get(RequestLoggingFilter.REQUEST_ID_MDC)).whenNotNull();
+        members.add("message", event -> redact(event.getFormattedMessage()));
+        members.add("stack_trace", event -> event.getThrowableProxy() == null ? null : redact(throwableConverter.convert(event)))
+                .whenNotNull();
+    }).withNewLineAtEnd();
+
+    public RedactingJsonLogFormatter() {
+        throwableConverter.start();
+    }
+
+    @Override
+    public String format(ILoggingEvent event) {
+        return writer.writeToString(event);
+    }
+
+    static String redact(String text) {
+        if (text == null) {
+            return null;
+        }
+        String redacted = JWT.matcher(text).replaceAll(REDACTED);
+        return TOKEN_COOKIE.matcher(redacted).replaceAll("$1" + REDACTED);
+    }
+}
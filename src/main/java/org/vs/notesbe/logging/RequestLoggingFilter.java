@@ -0,0 +1,143 @@
+package org.vs.notesbe.logging;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+// Runs first so every log line of the request, security filters included, carries the request id
+// and the sampling decision that SampledOutFilter applies to INFO and below.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestLoggingFilter.class);
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_ID_MDC = "requestId";
+    public static final String SAMPLED_MDC = "sampled";
+
+    private static final String REQUEST_ID_ATTRIBUTE = RequestLoggingFilter.class.getName() + ".requestId";
+    private static final String SAMPLED_ATTRIBUTE = RequestLoggingFilter.class.getName() + ".sampled";
+
+    // Client-supplied ids are echoed into logs, so only accept short, plain ones
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final LogSamplingProperties samplingProperties;
+
+    public RequestLoggingFilter(LogSamplingProperties samplingProperties) {
+        this.samplingProperties = samplingProperties;
+    }
+
+    // Async dispatches (the end of SSE and NDJSON streams) run the filter again under the same request id
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            putMdc((String) request.getAttribute(REQUEST_ID_ATTRIBUTE), (Boolean) request.getAttribute(SAMPLED_ATTRIBUTE));
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                clearMdc();
+            }
+            return;
+        }
+
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString();
+        }
+        String uri = request.getRequestURI();
+        double rate = samplingProperties.rateFor(uri.substring(uri.lastIndexOf('/') + 1));
+        boolean sampled = rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate;
+
+        putMdc(requestId, sampled);
+        request.setAttribute(REQUEST_ID_ATTRIBUTE, requestId);
+        request.setAttribute(SAMPLED_ATTRIBUTE, sampled);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // An async request is only done once its async context completes, after the last dispatch
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(request, response, requestId, sampled, start));
+            } else {
+                logCompletion(request, response, start);
+            }
+            clearMdc();
+        }
+    }
+
+    private static void logCompletion(HttpServletRequest request, HttpServletResponse response, long start) {
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        int status = response.getStatus();
+        if (status >= 400) {
+            log.warn("REQUEST ::: {} {} -> {} in {} ms", request.getMethod(), request.getRequestURI(), status, millis);
+        } else {
+            log.info("REQUEST ::: {} {} -> {} in {} ms", request.getMethod(), request.getRequestURI(), status, millis);
+        }
+    }
+
+    private static void putMdc(String requestId, Boolean sampled) {
+        if (requestId != null) {
+            MDC.put(REQUEST_ID_MDC, requestId);
+        }
+        if (sampled != null) {
+            MDC.put(SAMPLED_MDC, sampled.toString());
+        }
+    }
+
+    private static void clearMdc() {
+        MDC.remove(REQUEST_ID_MDC);
+        MDC.remove(SAMPLED_MDC);
+    }
+
+    private record CompletionListener(HttpServletRequest request, HttpServletResponse response, String requestId,
+                                      boolean sampled, long start) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            putMdc(requestId, sampled);
+            try {
+                logCompletion(request, response, start);
+            } finally {
+                clearMdc();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        // Listeners are dropped when async processing is started again
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.vs.notesbe.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+// Drops INFO and below for requests that were not sampled; WARN and ERROR always get through.
+// Attached to the async appender, so it runs on the caller thread and dropped events are never queued.
+public class SampledOutFilter extends Filter<ILoggingEvent> {
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (event.getLevel().isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        String sampled = event.getMDCPropertyMap().get(RequestLoggingFilter.SAMPLED_MDC);
+        return "false".equals(sampled) ? FilterReply.DENY : FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,64 @@
+package org.vs.notesbe.mapper;
+
+import org.springframework.stereotype.Component;
+import org.vs.notesbe.dto.NoteRequestDto;
+import org.vs.notesbe.dto.NoteResponseDto;
+import org.vs.notesbe.dto.NoteSummaryDto;
+import org.vs.notesbe.model.Note;
+import org.vs.notesbe.repository.NoteSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Plain field copies instead of BeanUtils.copyProperties, which introspects both classes on every call
+@Component
+public class NoteMapper {
+
+    public Note toNote(UUID userId, NoteRequestDto noteRequestDto) {
+        Note note = new Note();
+        note.setUserId(userId);
+        applyRequest(note, noteRequestDto);
+        return note;
+    }
+
+    public void applyRequest(Note note, NoteRequestDto noteRequestDto) {
+        note.setTitle(noteRequestDto.getTitle());
+        note.setBody(noteRequestDto.getBody());
+    }
+
+    public NoteResponseDto toResponseDto(Note note) {
+        NoteResponseDto dto = new NoteResponseDto();
+        dto.setNoteId(note.getNoteId());
+        dto.setTitle(note.getTitle());
+        dto.setBody(note.getBody());
+        dto.setUpdatedAt(note.getUpdatedAt());
+        dto.setVersion(note.getVersion());
+        return dto;
+    }
+
+    public List<NoteResponseDto> toResponseDtos(List<Note> notes) {
+        List<NoteResponseDto> dtos = new ArrayList<>(notes.size());
+        for (Note note : notes) {
+            dtos.add(toResponseDto(note));
+        }
+        return dtos;
+    }
+
+    public NoteSummaryDto toSummaryDto(NoteSummary summary) {
+        NoteSummaryDto dto = new NoteSummaryDto();
+        dto.setNoteId(summary.getNoteId());
+        dto.setTitle(summary.getTitle());
+        dto.setPreview(summary.getPreview());
+        dto.setUpdatedAt(summary.getUpdatedAt());
+        return dto;
+    }
+
+    public List<NoteSummaryDto> toSummaryDtos(List<NoteSummary> summaries) {
+        List<NoteSummaryDto> dtos = new ArrayList<>(summaries.size());
+        for (NoteSummary summary : summaries) {
+            dtos.add(toSummaryDto(summary));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,17 @@
+package org.vs.notesbe.mapper;
+
+import org.springframework.stereotype.Component;
+import org.vs.notesbe.dto.UserSignUpRequestDto;
+import org.vs.notesbe.model.User;
+
+@Component
+public class UserMapper {
+
+    public User toUser(UserSignUpRequestDto requestDto, String encodedPassword) {
+        User user = new User();
+        user.setUserName(requestDto.getUserName());
+        user.setEmail(requestDto.getEmail());
+        user.setPassword(encodedPassword);
+        return user;
+    }
+}
@@ -0,0 +1,11 @@
+package org.vs.notesbe.metrics;
+
+import jakarta.persistence.PostLoad;
+
+public class EntityLoadListener {
+
+    @PostLoad
+    public void onLoad(Object entity) {
+        RequestQueryStats.entityLoaded();
+    }
+}
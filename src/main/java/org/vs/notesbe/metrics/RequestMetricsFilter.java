@@ -0,0 +1,52 @@
+package org.vs.notesbe.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Records how many statements and entity loads each endpoint costs, to catch N+1 regressions
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNMAPPED = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueryStats.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int[] counters = RequestQueryStats.finish();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : UNMAPPED;
+
+            summary("notes.request.statements", "SQL statements prepared per request", uri)
+                    .record(RequestQueryStats.statements(counters));
+            summary("notes.request.entity.loads", "Entities loaded per request", uri)
+                    .record(RequestQueryStats.entityLoads(counters));
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+}
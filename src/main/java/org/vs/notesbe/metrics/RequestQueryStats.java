@@ -0,0 +1,49 @@
+package org.vs.notesbe.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Per-request counters of SQL statements and entity loads. Hibernate calls inspect() for every
+// statement it prepares (registered via hibernate.session_factory.statement_inspector), and
+// EntityLoadListener counts @PostLoad callbacks; RequestMetricsFilter resets and records them.
+public class RequestQueryStats implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNTERS = new ThreadLocal<>();
+
+    private static final int STATEMENTS = 0;
+    private static final int ENTITY_LOADS = 1;
+
+    @Override
+    public String inspect(String sql) {
+        increment(STATEMENTS);
+        return sql;
+    }
+
+    static void start() {
+        COUNTERS.set(new int[2]);
+    }
+
+    static int[] finish() {
+        int[] counters = COUNTERS.get();
+        COUNTERS.remove();
+        return counters;
+    }
+
+    static int statements(int[] counters) {
+        return counters[STATEMENTS];
+    }
+
+    static int entityLoads(int[] counters) {
+        return counters[ENTITY_LOADS];
+    }
+
+    static void entityLoaded() {
+        increment(ENTITY_LOADS);
+    }
+
+    private static void increment(int index) {
+        int[] counters = COUNTERS.get();
+        if (counters != null) {
+            counters[index]++;
+        }
+    }
+}
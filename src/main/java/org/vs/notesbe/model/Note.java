@@ -1,19 +1,43 @@
 package org.vs.notesbe.model;
 
+import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.vs.notesbe.metrics.EntityLoadListener;
+import org.vs.notesbe.util.NoteBodyCodec;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 @Entity
-@Table(name = "notes")
+@EntityListeners(EntityLoadListener.class)
+@DynamicUpdate
+@Table(name = "notes", indexes = {
+        @Index(name = "idx_notes_user_updated_note", columnList = "u_id, updated_at DESC, n_id DESC"),
+        @Index(name = "idx_notes_user_created_note", columnList = "u_id, created_at DESC, n_id DESC"),
+        @Index(name = "idx_notes_user_sync_version", columnList = "u_id, sync_version, n_id")
+})
 public class Note {
 
     @Id
@@ -27,14 +51,51 @@ public class Note {
     @Column(name = "title", nullable = false)
     private String title;
 
-    @Column(name = "body", nullable = false)
+    // Lazy via bytecode enhancement (hibernate-enhance-maven-plugin); list views never need it.
+    // Holds only the first NoteBodyCodec.STORED_PREFIX_LENGTH chars when bodyCompressed is set.
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "body", nullable = false, columnDefinition = "text")
     private String body;
 
+    // Bodies above NoteBodyCodec.COMPRESSION_THRESHOLD; loads in the same lazy group as body
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "body_compressed")
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private byte[] bodyCompressed;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
-    private String createdAt;
+    private Instant createdAt;
 
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
-    private String updatedAt;
+    private Instant updatedAt;
+
+    @ColumnDefault("0")
+    @Column(name = "sync_version", nullable = false)
+    private Long syncVersion = 0L;
+
+    // Optimistic lock: every update is conditional on the version the writer read. Null until persisted,
+    // as a set version is how Spring Data tells a saved note from a new one.
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Decompresses on each call, so only code that actually reads the body pays for it
+    public String getBody() {
+        return bodyCompressed != null ? NoteBodyCodec.decompress(bodyCompressed) : body;
+    }
+
+    public void setBody(String body) {
+        if (NoteBodyCodec.shouldCompress(body)) {
+            this.body = NoteBodyCodec.storedPrefix(body);
+            this.bodyCompressed = NoteBodyCodec.compress(body);
+        } else {
+            this.body = body;
+            this.bodyCompressed = null;
+        }
+    }
 }
@@ -0,0 +1,38 @@
+package org.vs.notesbe.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import org.vs.notesbe.metrics.EntityLoadListener;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Entity
+@EntityListeners(EntityLoadListener.class)
+@Table(name = "note_tombstones", indexes = {
+        @Index(name = "idx_note_tombstones_user_sync_version", columnList = "u_id, sync_version, n_id"),
+        @Index(name = "idx_note_tombstones_deleted_at", columnList = "deleted_at")
+})
+public class NoteTombstone {
+
+    @Id
+    @Column(name = "n_id", nullable = false, unique = true)
+    private UUID noteId;
+
+    @Column(name = "u_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "sync_version", nullable = false)
+    private Long syncVersion;
+
+    @CreationTimestamp
+    @Column(name = "deleted_at", nullable = false, updatable = false)
+    private Instant deletedAt;
+}
@@ -2,18 +2,29 @@ package org.vs.notesbe.model;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.vs.notesbe.metrics.EntityLoadListener;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Data
 @Entity
-@Table(name = "users")
+@EntityListeners(EntityLoadListener.class)
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_users_user_name", columnNames = "user_name"),
+        @UniqueConstraint(name = "uk_users_email", columnNames = "email")
+}, indexes = {
+        @Index(name = "idx_users_created_at", columnList = "created_at")
+})
 public class User {
 
     @Id
@@ -24,7 +35,7 @@ public class User {
     @Column(name = "user_name", nullable = false)
     private String userName;
 
-    @Column(name = "email", nullable = false, unique = true)
+    @Column(name = "email", nullable = false)
     private String email;
 
     @Column(name = "password", nullable = false)
@@ -32,11 +43,11 @@ public class User {
 
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
-    private String createdAt;
+    private Instant createdAt;
 
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
-    private String updatedAt;
+    private Instant updatedAt;
 
     @Override
     public String toString() {
@@ -44,8 +55,8 @@ public class User {
                 "userId=" + userId +
                 ", userName='" + userName + '\'' +
                 ", email='" + email + '\'' +
-                ", createdAt='" + createdAt + '\'' +
-                ", updatedAt='" + updatedAt + '\'' +
+                ", createdAt=" + createdAt +
+                ", updatedAt=" + updatedAt +
                 '}';
     }
 }
@@ -1,14 +1,133 @@
 package org.vs.notesbe.repository;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.vs.notesbe.model.Note;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface NoteRepo extends JpaRepository<Note, String> {
-    List<Note> findAllByUserId(UUID userId);
 
+    // Note.body is lazy, so reads that need it select it up front as detached, read-only Note instances
+    String SELECT_NOTE_WITH_BODY = """
+            SELECT new org.vs.notesbe.model.Note(n.noteId, n.userId, n.title, n.body, n.bodyCompressed, n.createdAt, n.updatedAt, n.syncVersion, n.version)
+            FROM Note n
+            """;
+
+    @Query(SELECT_NOTE_WITH_BODY + "WHERE n.userId = :userId")
+    List<Note> findAllByUserId(@Param("userId") UUID userId);
+
+    // Managed entity without its body, for updates
     Optional<Note> findByUserIdAndNoteId(UUID userId, UUID noteId);
+
+    @Query(SELECT_NOTE_WITH_BODY + "WHERE n.userId = :userId AND n.noteId = :noteId")
+    Optional<Note> findWithBodyByUserIdAndNoteId(@Param("userId") UUID userId, @Param("noteId") UUID noteId);
+
+    // Keyset pagination, served by idx_notes_user_updated_note
+    @Query(SELECT_NOTE_WITH_BODY + """
+            WHERE n.userId = :userId
+            ORDER BY n.updatedAt DESC, n.noteId DESC
+            """)
+    List<Note> findByUserIdOrderByUpdatedAtDescNoteIdDesc(@Param("userId") UUID userId, Limit limit);
+
+    @Query(SELECT_NOTE_WITH_BODY + """
+            WHERE n.userId = :userId
+              AND (n.updatedAt, n.noteId) < (:updatedAt, :noteId)
+            ORDER BY n.updatedAt DESC, n.noteId DESC
+            """)
+    List<Note> findPageAfter(
+            @Param("userId") UUID userId,
+            @Param("updatedAt") Instant updatedAt,
+            @Param("noteId") UUID noteId,
+            Limit limit
+    );
+
+    // Recency range scans, served by idx_notes_user_updated_note and idx_notes_user_created_note
+    @Query(SELECT_NOTE_WITH_BODY + """
+            WHERE n.userId = :userId AND n.updatedAt > :updatedSince
+            ORDER BY n.updatedAt DESC, n.noteId DESC
+            """)
+    List<Note> findByUserIdAndUpdatedAtGreaterThanOrderByUpdatedAtDescNoteIdDesc(
+            @Param("userId") UUID userId,
+            @Param("updatedSince") Instant updatedSince,
+            Limit limit
+    );
+
+    @Query(SELECT_NOTE_WITH_BODY + """
+            WHERE n.userId = :userId AND n.createdAt BETWEEN :createdFrom AND :createdTo
+            ORDER BY n.createdAt DESC, n.noteId DESC
+            """)
+    List<Note> findByUserIdAndCreatedAtBetweenOrderByCreatedAtDescNoteIdDesc(
+            @Param("userId") UUID userId,
+            @Param("createdFrom") Instant createdFrom,
+            @Param("createdTo") Instant createdTo,
+            Limit limit
+    );
+
+    // Summary listing: the preview is cut in the database, so full bodies never leave it
+    @Query("""
+            SELECT n.noteId AS noteId, n.title AS title, SUBSTRING(n.body, 1, :previewLength) AS preview, n.updatedAt AS updatedAt
+            FROM Note n
+            WHERE n.userId = :userId
+            ORDER BY n.updatedAt DESC, n.noteId DESC
+            """)
+    List<NoteSummary> findSummaryPage(@Param("userId") UUID userId, @Param("previewLength") int previewLength, Limit limit);
+
+    @Query("""
+            SELECT n.noteId AS noteId, n.title AS title, SUBSTRING(n.body, 1, :previewLength) AS preview, n.updatedAt AS updatedAt
+            FROM Note n
+            WHERE n.userId = :userId
+              AND (n.updatedAt, n.noteId) < (:updatedAt, :noteId)
+            ORDER BY n.updatedAt DESC, n.noteId DESC
+            """)
+    List<NoteSummary> findSummaryPageAfter(
+            @Param("userId") UUID userId,
+            @Param("updatedAt") Instant updatedAt,
+            @Param("noteId") UUID noteId,
+            @Param("previewLength") int previewLength,
+            Limit limit
+    );
+
+    // Forward-only cursor for exports; must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_NOTE_WITH_BODY + "WHERE n.userId = :userId ORDER BY n.updatedAt DESC, n.noteId DESC")
+    Stream<Note> streamAllByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("DELETE FROM Note n WHERE n.userId = :userId AND n.noteId = :noteId")
+    int deleteByUserIdAndNoteId(@Param("userId") UUID userId, @Param("noteId") UUID noteId);
+
+    // Single set-based delete; RETURNING tells the caller which of the requested ids existed
+    @Query(value = "DELETE FROM notes WHERE u_id = :userId AND n_id IN (:noteIds) RETURNING n_id", nativeQuery = true)
+    List<UUID> deleteAllByUserIdAndNoteIdIn(@Param("userId") UUID userId, @Param("noteIds") Collection<UUID> noteIds);
+
+    @Query(SELECT_NOTE_WITH_BODY + """
+            WHERE n.userId = :userId
+              AND (n.syncVersion, n.noteId) > (:syncVersion, :noteId)
+            ORDER BY n.syncVersion, n.noteId
+            """)
+    List<Note> findChangesAfter(
+            @Param("userId") UUID userId,
+            @Param("syncVersion") long syncVersion,
+            @Param("noteId") UUID noteId,
+            Limit limit
+    );
 }
@@ -0,0 +1,14 @@
+package org.vs.notesbe.repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface NoteSummary {
+    UUID getNoteId();
+
+    String getTitle();
+
+    String getPreview();
+
+    Instant getUpdatedAt();
+}
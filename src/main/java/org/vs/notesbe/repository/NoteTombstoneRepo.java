@@ -0,0 +1,32 @@
+package org.vs.notesbe.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.vs.notesbe.model.NoteTombstone;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface NoteTombstoneRepo extends JpaRepository<NoteTombstone, UUID> {
+
+    @Query("""
+            SELECT t FROM NoteTombstone t
+            WHERE t.userId = :userId
+              AND (t.syncVersion, t.noteId) > (:syncVersion, :noteId)
+            ORDER BY t.syncVersion, t.noteId
+            """)
+    List<NoteTombstone> findChangesAfter(
+            @Param("userId") UUID userId,
+            @Param("syncVersion") long syncVersion,
+            @Param("noteId") UUID noteId,
+            Limit limit
+    );
+
+    @Modifying
+    @Query("DELETE FROM NoteTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteAllDeletedBefore(@Param("cutoff") Instant cutoff);
+}
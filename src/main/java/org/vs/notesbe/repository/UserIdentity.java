@@ -0,0 +1,7 @@
+package org.vs.notesbe.repository;
+
+public interface UserIdentity {
+    String getUserName();
+
+    String getEmail();
+}
@@ -1,12 +1,48 @@
 package org.vs.notesbe.repository;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import org.vs.notesbe.model.User;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface UserRepo extends JpaRepository<User, UUID> {
     User findByUserName(String userName);
 
     User findByEmail(String email);
+
+    boolean existsByUserName(String userName);
+
+    boolean existsByEmail(String email);
+
+    boolean existsByUserNameOrEmail(String userName, String email);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u.userName AS userName, u.email AS email FROM User u")
+    Stream<UserIdentity> streamAllIdentities();
+
+    @Query("SELECT u.userName AS userName, u.email AS email FROM User u WHERE u.createdAt >= :since")
+    List<UserIdentity> findIdentitiesCreatedSince(@Param("since") Instant since);
+
+    // Only replaces the hash that was verified, so a concurrent password change is never overwritten
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.userId = :userId AND u.password = :oldPassword")
+    int updatePassword(@Param("userId") UUID userId,
+                       @Param("oldPassword") String oldPassword,
+                       @Param("newPassword") String newPassword);
 }
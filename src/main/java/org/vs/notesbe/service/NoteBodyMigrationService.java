@@ -0,0 +1,108 @@
+package org.vs.notesbe.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.vs.notesbe.sharding.ShardDataSources;
+import org.vs.notesbe.util.NoteBodyCodec;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Compresses large bodies stored before compressed storage existed. Runs once after startup, shard by shard,
+// in small batches: every row is its own short update that only locks that row, and a row whose note was
+// edited since the batch read it is skipped (its new body was stored by Note.setBody anyway).
+@Service
+public class NoteBodyMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteBodyMigrationService.class);
+
+    private static final String SELECT_BATCH_SQL = """
+            SELECT n_id, body, version FROM notes
+            WHERE n_id > ? AND body_compressed IS NULL AND length(body) > ?
+            ORDER BY n_id LIMIT ?
+            """;
+    private static final String UPDATE_BODY_SQL =
+            "UPDATE notes SET body = ?, body_compressed = ? WHERE n_id = ? AND version = ? AND body_compressed IS NULL";
+
+    private final ShardDataSources shardDataSources;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration pause;
+
+    public NoteBodyMigrationService(
+            ShardDataSources shardDataSources,
+            @Value("${notes.storage.compress-existing-bodies:true}") boolean enabled,
+            @Value("${notes.storage.migration-batch-size:200}") int batchSize,
+            @Value("${notes.storage.migration-pause:PT0.2S}") Duration pause
+    ) {
+        this.shardDataSources = shardDataSources;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pause = pause;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            Thread.ofVirtual().name("note-body-migration").start(this::migrateAllShards);
+        }
+    }
+
+    private void migrateAllShards() {
+        for (Map.Entry<String, DataSource> shard : shardDataSources.primaries().entrySet()) {
+            try {
+                migrateShard(shard.getKey(), new JdbcTemplate(shard.getValue()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Next startup picks up where this one stopped
+                log.error("NOTE_BODY_MIGRATION - MIGRATE ::: Stopped on {}: {}", shard.getKey(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void migrateShard(String shard, JdbcTemplate jdbcTemplate) throws InterruptedException {
+        long compressed = 0;
+        long savedBytes = 0;
+        UUID after = new UUID(0, 0);
+        List<StoredBody> batch;
+        do {
+            batch = jdbcTemplate.query(SELECT_BATCH_SQL, (rs, rowNum) -> new StoredBody(
+                    rs.getObject("n_id", UUID.class), rs.getString("body"), rs.getLong("version")
+            ), after, NoteBodyCodec.COMPRESSION_THRESHOLD, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            for (StoredBody row : batch) {
+                byte[] body = NoteBodyCodec.compress(row.body());
+                int updated = jdbcTemplate.update(UPDATE_BODY_SQL,
+                        NoteBodyCodec.storedPrefix(row.body()), body, row.noteId(), row.version());
+                if (updated > 0) {
+                    compressed++;
+                    savedBytes += row.body().length() - body.length;
+                }
+            }
+            after = batch.get(batch.size() - 1).noteId();
+
+            Thread.sleep(pause);
+        } while (batch.size() == batchSize);
+
+        if (compressed > 0) {
+            log.info("NOTE_BODY_MIGRATION - MIGRATE ::: Compressed {} note bodies on {}, about {} KB saved",
+                    compressed, shard, savedBytes / 1024);
+        }
+    }
+
+    private record StoredBody(UUID noteId, String body, long version) {
+    }
+}
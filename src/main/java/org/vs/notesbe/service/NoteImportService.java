@@ -0,0 +1,206 @@
+package org.vs.notesbe.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vs.notesbe.cache.NoteCache;
+import org.vs.notesbe.datasource.ReadYourWritesTracker;
+import org.vs.notesbe.dto.NoteImportChunkDto;
+import org.vs.notesbe.dto.NoteImportResponseDto;
+import org.vs.notesbe.dto.NoteRequestDto;
+import org.vs.notesbe.events.NoteChangeEvent;
+import org.vs.notesbe.events.NoteEventBus;
+import org.vs.notesbe.exception.AddNoteException;
+import org.vs.notesbe.sharding.ShardedByUser;
+import org.vs.notesbe.util.NoteBodyCodec;
+import org.vs.notesbe.util.TransactionCallbacks;
+import org.vs.notesbe.util.UuidV7;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+@Service
+@ShardedByUser
+@Timed(value = "notes.service", histogram = true)
+public class NoteImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteImportService.class);
+
+    private static final String INSERT_NOTE_SQL =
+            "INSERT INTO notes (n_id, u_id, title, body, body_compressed, sync_version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, now(), now())";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final NoteSearchService noteSearchService;
+    private final NoteCache noteCache;
+    private final NoteSyncService noteSyncService;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final NoteEventBus noteEventBus;
+    private final int chunkSize;
+
+    public NoteImportService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            NoteSearchService noteSearchService,
+            NoteCache noteCache,
+            NoteSyncService noteSyncService,
+            ReadYourWritesTracker readYourWritesTracker,
+            NoteEventBus noteEventBus,
+            @Value("${notes.import.chunk-size:500}") int chunkSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.noteSearchService = noteSearchService;
+        this.noteCache = noteCache;
+        this.noteSyncService = noteSyncService;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.noteEventBus = noteEventBus;
+        this.chunkSize = chunkSize;
+    }
+
+    public NoteImportResponseDto importNotes(UUID userId, InputStream inputStream) throws IOException {
+        log.info("NOTE_IMPORT_SERVICE - IMPORT_NOTES ::: Importing notes for user ID: {} in chunks of {}", userId, chunkSize);
+
+        NoteImportResponseDto result = new NoteImportResponseDto();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new AddNoteException("Expected a JSON array of notes");
+            }
+
+            List<NoteRequestDto> chunk = new ArrayList<>(chunkSize);
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == null) {
+                        throw new JsonParseException(parser, "Unexpected end of the notes array");
+                    }
+                    if (token == JsonToken.START_OBJECT) {
+                        chunk.add(objectMapper.readValue(parser, NoteRequestDto.class));
+                    } else {
+                        // Anything other than an object counts as a failed note
+                        parser.skipChildren();
+                        chunk.add(null);
+                    }
+                    if (chunk.size() == chunkSize) {
+                        insertChunk(userId, chunk, result);
+                        chunk.clear();
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                // Earlier chunks are committed, so the caller gets the report to know what not to resend
+                log.error("NOTE_IMPORT_SERVICE - IMPORT_NOTES ::: Invalid JSON after {} notes for user ID {}: {}",
+                        result.getTotalReceived() + chunk.size(), userId, e.getOriginalMessage());
+                if (!chunk.isEmpty()) {
+                    insertChunk(userId, chunk, result);
+                    chunk.clear();
+                }
+                addFailedRemainder(result, e);
+            }
+            if (!chunk.isEmpty()) {
+                insertChunk(userId, chunk, result);
+            }
+        } finally {
+            // Rows were written with plain JDBC, so let the cache and search index reload from the table
+            readYourWritesTracker.recordWrite(userId);
+            noteCache.invalidate(userId, List.of());
+            noteSearchService.invalidate(userId);
+        }
+
+        log.info("NOTE_IMPORT_SERVICE - IMPORT_NOTES ::: Imported {} of {} notes for user ID: {}",
+                result.getTotalImported(), result.getTotalReceived(), userId);
+
+        return result;
+    }
+
+    private void insertChunk(UUID userId, List<NoteRequestDto> chunk, NoteImportResponseDto result) {
+        NoteImportChunkDto chunkResult = new NoteImportChunkDto();
+        chunkResult.setChunkIndex(result.getChunks().size());
+        chunkResult.setReceived(chunk.size());
+
+        List<NoteRequestDto> valid = chunk.stream()
+                .filter(note -> note != null && note.getTitle() != null && note.getBody() != null)
+                .toList();
+        int invalid = chunk.size() - valid.size();
+
+        try {
+            // Each chunk commits on its own so one bad chunk does not undo the ones before it
+            if (!valid.isEmpty()) {
+                List<UUID> noteIds = valid.stream().map(note -> UuidV7.generate()).toList();
+                transactionTemplate.executeWithoutResult(status -> {
+                    long version = noteSyncService.nextSyncVersion(userId);
+                    jdbcTemplate.batchUpdate(INSERT_NOTE_SQL, IntStream.range(0, valid.size()).boxed().toList(), valid.size(),
+                            (ps, i) -> {
+                                // Same storage form as Note.setBody
+                                String body = valid.get(i).getBody();
+                                boolean compress = NoteBodyCodec.shouldCompress(body);
+                                ps.setObject(1, noteIds.get(i));
+                                ps.setObject(2, userId);
+                                ps.setString(3, valid.get(i).getTitle());
+                                ps.setString(4, compress ? NoteBodyCodec.storedPrefix(body) : body);
+                                ps.setBytes(5, compress ? NoteBodyCodec.compress(body) : null);
+                                ps.setLong(6, version);
+                            });
+                    // Subscribers may reload right away, so the cached pages have to go before they hear about it
+                    TransactionCallbacks.afterCommit(() -> noteCache.invalidate(userId, List.of()));
+                    noteEventBus.publish(NoteChangeEvent.changed(userId, version, noteIds));
+                });
+            }
+            chunkResult.setImported(valid.size());
+            chunkResult.setFailed(invalid);
+            if (invalid > 0) {
+                chunkResult.setError(invalid + " entries not a note object or missing title or body");
+            }
+        } catch (DataAccessException e) {
+            // Database messages name tables and constraints, so they stay in the log
+            log.error("NOTE_IMPORT_SERVICE - IMPORT_NOTES ::: Chunk {} failed for user ID {}: {}",
+                    chunkResult.getChunkIndex(), userId, e.getMostSpecificCause().getMessage(), e);
+            chunkResult.setImported(0);
+            chunkResult.setFailed(chunk.size());
+            chunkResult.setError("Notes could not be saved");
+        }
+
+        addChunk(result, chunkResult);
+
+        log.info("NOTE_IMPORT_SERVICE - IMPORT_NOTES ::: Chunk {} done for user ID {}: {} imported, {} failed",
+                chunkResult.getChunkIndex(), userId, chunkResult.getImported(), chunkResult.getFailed());
+    }
+
+    // The unreadable element and everything after it count as one failed entry
+    private static void addFailedRemainder(NoteImportResponseDto result, JsonProcessingException e) {
+        NoteImportChunkDto chunkResult = new NoteImportChunkDto();
+        chunkResult.setChunkIndex(result.getChunks().size());
+        chunkResult.setReceived(1);
+        chunkResult.setImported(0);
+        chunkResult.setFailed(1);
+        chunkResult.setError(e.getLocation() == null
+                ? "Invalid JSON, the rest of the input was not imported"
+                : "Invalid JSON at line " + e.getLocation().getLineNr() + ", column " + e.getLocation().getColumnNr()
+                        + ", the rest of the input was not imported");
+        addChunk(result, chunkResult);
+    }
+
+    private static void addChunk(NoteImportResponseDto result, NoteImportChunkDto chunkResult) {
+        result.getChunks().add(chunkResult);
+        result.setTotalReceived(result.getTotalReceived() + chunkResult.getReceived());
+        result.setTotalImported(result.getTotalImported() + chunkResult.getImported());
+        result.setTotalFailed(result.getTotalFailed() + chunkResult.getFailed());
+    }
+}
@@ -0,0 +1,282 @@
+package org.vs.notesbe.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+import org.vs.notesbe.dto.NoteSearchResultDto;
+import org.vs.notesbe.model.Note;
+import org.vs.notesbe.repository.NoteRepo;
+import org.vs.notesbe.sharding.ShardedByUser;
+import org.vs.notesbe.util.CacheLoading;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+@ShardedByUser
+@Timed(value = "notes.service", histogram = true)
+public class NoteSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteSearchService.class);
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final int TITLE_WEIGHT = 3;
+    private static final int SNIPPET_RADIUS = 60;
+    private static final String HIGHLIGHT_OPEN = "<mark>";
+    private static final String HIGHLIGHT_CLOSE = "</mark>";
+    // Rough heap cost of an indexed note besides its text, and of one of its postings
+    private static final int NOTE_OVERHEAD_BYTES = 256;
+    private static final int POSTING_BYTES = 96;
+
+    private final NoteRepo noteRepo;
+
+    // One inverted index per user, built on first search. Writes through this node keep it current; writes it
+    // never sees (other nodes, imports, rebalancing) show up at the latest when it is rebuilt after maxStaleness.
+    // Weighed by its estimated heap size when built, as it holds the full note text.
+    private final AsyncCache<UUID, UserIndex> indexes;
+
+    public NoteSearchService(
+            NoteRepo noteRepo,
+            @Value("${notes.search.max-bytes:134217728}") long maxBytes,
+            @Value("${notes.search.idle-ttl:PT30M}") Duration idleTtl,
+            @Value("${notes.search.max-staleness:PT2M}") Duration maxStaleness
+    ) {
+        this.noteRepo = noteRepo;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((UUID userId, UserIndex index) -> (int) Math.min(Integer.MAX_VALUE, index.weight()))
+                .expireAfterAccess(idleTtl)
+                .expireAfterWrite(maxStaleness)
+                .buildAsync();
+    }
+
+    // Read-only so a cold index is built from a replica
+    @Transactional(readOnly = true)
+    public List<NoteSearchResultDto> search(UUID userId, String query, int limit) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        UserIndex index = CacheLoading.getOrLoad(indexes, userId, () -> buildIndex(userId));
+        return index.search(terms, limit);
+    }
+
+    // Index updates are only applied to users whose index is already loaded or loading (then once the build
+    // is done); a missing index is built from the database on the next search, after the write has committed.
+    public void indexNote(Note note) {
+        CompletableFuture<UserIndex> index = indexes.getIfPresent(note.getUserId());
+        if (index != null) {
+            index.thenAccept(loaded -> loaded.put(note));
+        }
+    }
+
+    public void removeNotes(UUID userId, Collection<UUID> noteIds) {
+        CompletableFuture<UserIndex> index = indexes.getIfPresent(userId);
+        if (index != null) {
+            index.thenAccept(loaded -> noteIds.forEach(loaded::remove));
+        }
+    }
+
+    public void invalidate(UUID userId) {
+        indexes.synchronous().invalidate(userId);
+    }
+
+    private UserIndex buildIndex(UUID userId) {
+        long start = System.nanoTime();
+
+        UserIndex index = new UserIndex();
+        noteRepo.findAllByUserId(userId).forEach(index::put);
+
+        log.info("NOTE_SEARCH_SERVICE - BUILD_INDEX ::: Indexed {} notes for user ID {} in {} ms",
+                index.size(), userId, (System.nanoTime() - start) / 1_000_000);
+
+        return index;
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = WORD.matcher(text);
+        while (matcher.find()) {
+            tokens.add(matcher.group().toLowerCase(Locale.ROOT));
+        }
+        return tokens;
+    }
+
+    private static boolean matchesAny(String word, List<String> terms) {
+        String lower = word.toLowerCase(Locale.ROOT);
+        for (String term : terms) {
+            if (lower.startsWith(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns HTML: the note's own text is escaped, so only the highlight markers are markup
+    private static String highlight(String text, List<String> terms) {
+        StringBuilder sb = new StringBuilder(text.length() + 32);
+        Matcher matcher = WORD.matcher(text);
+        int last = 0;
+        while (matcher.find()) {
+            if (matchesAny(matcher.group(), terms)) {
+                sb.append(HtmlUtils.htmlEscape(text.substring(last, matcher.start())))
+                        .append(HIGHLIGHT_OPEN)
+                        .append(HtmlUtils.htmlEscape(matcher.group()))
+                        .append(HIGHLIGHT_CLOSE);
+                last = matcher.end();
+            }
+        }
+        return sb.append(HtmlUtils.htmlEscape(text.substring(last))).toString();
+    }
+
+    private static String snippet(String body, List<String> terms) {
+        int matchStart = -1;
+        int matchEnd = -1;
+        Matcher matcher = WORD.matcher(body);
+        while (matcher.find()) {
+            if (matchesAny(matcher.group(), terms)) {
+                matchStart = matcher.start();
+                matchEnd = matcher.end();
+                break;
+            }
+        }
+
+        int from = matchStart < 0 ? 0 : Math.max(0, matchStart - SNIPPET_RADIUS);
+        int to = matchStart < 0 ? Math.min(body.length(), 2 * SNIPPET_RADIUS) : Math.min(body.length(), matchEnd + SNIPPET_RADIUS);
+
+        String window = highlight(body.substring(from, to), terms);
+        return (from > 0 ? "…" : "") + window + (to < body.length() ? "…" : "");
+    }
+
+    private record IndexedNote(UUID noteId, String title, String body, Instant updatedAt, Map<String, Integer> termFrequencies) {
+    }
+
+    private static final class UserIndex {
+
+        private final Map<UUID, IndexedNote> notes = new HashMap<>();
+
+        // Sorted so a prefix query is a single range scan over the term dictionary
+        private final NavigableMap<String, Map<UUID, Integer>> postings = new TreeMap<>();
+
+        private long weight;
+
+        synchronized int size() {
+            return notes.size();
+        }
+
+        synchronized long weight() {
+            return weight;
+        }
+
+        synchronized void put(Note note) {
+            remove(note.getNoteId());
+
+            // Read once: a compressed body is decompressed on every getBody()
+            String body = note.getBody();
+            Map<String, Integer> termFrequencies = new HashMap<>();
+            tokenize(note.getTitle()).forEach(term -> termFrequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+            tokenize(body).forEach(term -> termFrequencies.merge(term, 1, Integer::sum));
+
+            IndexedNote indexed = new IndexedNote(note.getNoteId(), note.getTitle(), body, note.getUpdatedAt(), termFrequencies);
+            notes.put(note.getNoteId(), indexed);
+            weight += weigh(indexed);
+            termFrequencies.forEach((term, tf) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(note.getNoteId(), tf));
+        }
+
+        synchronized void remove(UUID noteId) {
+            IndexedNote existing = notes.remove(noteId);
+            if (existing == null) {
+                return;
+            }
+            weight -= weigh(existing);
+            for (String term : existing.termFrequencies().keySet()) {
+                Map<UUID, Integer> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(noteId);
+                    if (posting.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+
+        private static long weigh(IndexedNote note) {
+            long chars = (note.title() == null ? 0 : note.title().length()) + (note.body() == null ? 0 : note.body().length());
+            return NOTE_OVERHEAD_BYTES + chars * 2 + (long) note.termFrequencies().size() * POSTING_BYTES;
+        }
+
+        // Every query term must match (as a prefix); scored with tf-idf, exact matches weighted above prefixes
+        synchronized List<NoteSearchResultDto> search(List<String> terms, int limit) {
+            Map<UUID, Double> scores = null;
+            for (String term : terms) {
+                Map<UUID, Double> termScores = new HashMap<>();
+                for (Map.Entry<String, Map<UUID, Integer>> entry
+                        : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+                    double idf = Math.log(1.0 + (double) notes.size() / entry.getValue().size());
+                    double boost = entry.getKey().length() == term.length() ? 1.0 : 0.5;
+                    entry.getValue().forEach((noteId, tf) ->
+                            termScores.merge(noteId, (1.0 + Math.log(tf)) * idf * boost, Double::sum));
+                }
+
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((noteId, score) -> score + termScores.get(noteId));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            PriorityQueue<Map.Entry<UUID, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<UUID, Double> entry : scores.entrySet()) {
+                top.offer(entry);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<NoteSearchResultDto> results = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                Map.Entry<UUID, Double> entry = top.poll();
+                IndexedNote note = notes.get(entry.getKey());
+
+                NoteSearchResultDto dto = new NoteSearchResultDto();
+                dto.setNoteId(note.noteId());
+                dto.setTitle(highlight(note.title(), terms));
+                dto.setSnippet(snippet(note.body(), terms));
+                dto.setScore(entry.getValue());
+                dto.setUpdatedAt(note.updatedAt());
+                results.add(dto);
+            }
+            Collections.reverse(results);
+            return results;
+        }
+    }
+}
@@ -1,80 +1,300 @@
 package org.vs.notesbe.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeanUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vs.notesbe.cache.NoteCache;
+import org.vs.notesbe.datasource.ReadYourWritesTracker;
 import org.vs.notesbe.dto.DeleteMultipleRequestDto;
+import org.vs.notesbe.dto.DeleteMultipleResponseDto;
+import org.vs.notesbe.dto.NoteCacheStatsDto;
+import org.vs.notesbe.dto.NotePageResponseDto;
+import org.vs.notesbe.dto.NotePatchRequestDto;
 import org.vs.notesbe.dto.NoteRequestDto;
 import org.vs.notesbe.dto.NoteResponseDto;
+import org.vs.notesbe.dto.NoteSearchResultDto;
+import org.vs.notesbe.dto.NoteSummaryDto;
+import org.vs.notesbe.dto.NoteSummaryPageResponseDto;
+import org.vs.notesbe.dto.NoteTextEditDto;
+import org.vs.notesbe.events.NoteChangeEvent;
+import org.vs.notesbe.events.NoteEventBus;
 import org.vs.notesbe.exception.GetNoteException;
+import org.vs.notesbe.exception.InvalidNotePatchException;
+import org.vs.notesbe.exception.InvalidNoteQueryException;
+import org.vs.notesbe.exception.NoteVersionConflictException;
+import org.vs.notesbe.mapper.NoteMapper;
 import org.vs.notesbe.model.Note;
 import org.vs.notesbe.repository.NoteRepo;
-
+import org.vs.notesbe.repository.NoteSummary;
+import org.vs.notesbe.sharding.ShardedByUser;
+import org.vs.notesbe.util.NoteBodyCodec;
+import org.vs.notesbe.util.NoteCursor;
+import org.vs.notesbe.util.TextPatch;
+import org.vs.notesbe.util.TransactionCallbacks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
+@ShardedByUser
+@Timed(value = "notes.service", histogram = true)
 public class NoteService {
 
     private static final Logger log = LoggerFactory.getLogger(NoteService.class);
 
-    private final NoteRepo noteRepo;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int EXPORT_FLUSH_INTERVAL = 100;
+    private static final int DELETE_CHUNK_SIZE = 1000;
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int DEFAULT_PREVIEW_LENGTH = 200;
+    // Previews come from notes.body in SQL, which is cut to this length when the full body is compressed
+    private static final int MAX_PREVIEW_LENGTH = NoteBodyCodec.STORED_PREFIX_LENGTH;
 
-    public NoteService(NoteRepo noteRepo) {
+    private final NoteRepo noteRepo;
+    private final ObjectMapper objectMapper;
+    private final NoteSearchService noteSearchService;
+    private final NoteCache noteCache;
+    private final NoteSyncService noteSyncService;
+    private final NoteMapper noteMapper;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final NoteEventBus noteEventBus;
+    // Reads outside the caller's transaction, e.g. after it failed and can only roll back
+    private final TransactionTemplate newTransactionTemplate;
+
+    public NoteService(
+            NoteRepo noteRepo,
+            ObjectMapper objectMapper,
+            NoteSearchService noteSearchService,
+            NoteCache noteCache,
+            NoteSyncService noteSyncService,
+            NoteMapper noteMapper,
+            ReadYourWritesTracker readYourWritesTracker,
+            NoteEventBus noteEventBus,
+            TransactionTemplate transactionTemplate
+    ) {
         this.noteRepo = noteRepo;
+        this.objectMapper = objectMapper;
+        this.noteSearchService = noteSearchService;
+        this.noteCache = noteCache;
+        this.noteSyncService = noteSyncService;
+        this.noteMapper = noteMapper;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.noteEventBus = noteEventBus;
+        this.newTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
+    @Transactional
     public NoteResponseDto addNote(UUID userId, NoteRequestDto addNoteRequestDto) {
         log.info("NOTE_SERVICE - ADD_NOTE ::: Adding note with title: {}", addNoteRequestDto.getTitle());
 
-        Note note = new Note();
-        note.setUserId(userId);
-        note.setTitle(addNoteRequestDto.getTitle());
-        note.setBody(addNoteRequestDto.getBody());
+        Note note = noteMapper.toNote(userId, addNoteRequestDto);
+        note.setSyncVersion(noteSyncService.nextSyncVersion(userId));
 
         noteRepo.save(note);
+        TransactionCallbacks.afterCommit(() -> {
+            readYourWritesTracker.recordWrite(userId);
+            noteCache.invalidate(userId, List.of());
+            noteSearchService.indexNote(note);
+        });
+        noteEventBus.publish(NoteChangeEvent.changed(userId, note.getSyncVersion(), List.of(note.getNoteId())));
 
-        NoteResponseDto noteResponseDto = new NoteResponseDto();
-        BeanUtils.copyProperties(note, noteResponseDto);
+        NoteResponseDto noteResponseDto = noteMapper.toResponseDto(note);
 
         log.info("NOTE_SERVICE - ADD_NOTE ::: Note added successfully with ID: {}", noteResponseDto.getNoteId());
 
         return noteResponseDto;
     }
 
-    public List<NoteResponseDto> getNotes(UUID userId) {
+    @Transactional(readOnly = true)
+    public NotePageResponseDto getNotes(UUID userId, String cursor, Integer limit) {
         log.info("NOTE_SERVICE - GET_NOTES ::: Fetching notes for user ID: {}", userId);
 
-        List<NoteResponseDto> noteResponseDtos = noteRepo.findAllByUserId(userId).stream()
-                .map(note -> {
-                    NoteResponseDto dto = new NoteResponseDto();
-                    BeanUtils.copyProperties(note, dto);
-                    return dto;
-                })
-                .toList();
+        int pageSize = pageSize(limit);
+        String pageCursor = normalizeCursor(cursor);
+
+        NotePageResponseDto notePageResponseDto = noteCache.getNotePage(userId, pageCursor, pageSize,
+                () -> loadNotePage(userId, pageCursor, pageSize));
+
+        log.info("NOTE_SERVICE - GET_NOTES ::: Found {} notes for user ID: {}", notePageResponseDto.getNotes().size(), userId);
+
+        return notePageResponseDto;
+    }
+
+    @Transactional(readOnly = true)
+    public NoteSummaryPageResponseDto getNoteSummaries(UUID userId, String cursor, Integer limit, Integer previewLength) {
+        log.info("NOTE_SERVICE - GET_NOTE_SUMMARIES ::: Fetching note summaries for user ID: {}", userId);
+
+        int pageSize = pageSize(limit);
+        int preview = Math.min(Math.max(previewLength == null ? DEFAULT_PREVIEW_LENGTH : previewLength, 0), MAX_PREVIEW_LENGTH);
+        String pageCursor = normalizeCursor(cursor);
+
+        List<NoteSummary> summaries;
+        if (pageCursor == null) {
+            summaries = noteRepo.findSummaryPage(userId, preview, Limit.of(pageSize + 1));
+        } else {
+            NoteCursor after = NoteCursor.decode(pageCursor);
+            summaries = noteRepo.findSummaryPageAfter(userId, after.updatedAt(), after.noteId(), preview, Limit.of(pageSize + 1));
+        }
+
+        boolean hasMore = summaries.size() > pageSize;
+        if (hasMore) {
+            summaries = summaries.subList(0, pageSize);
+        }
+
+        List<NoteSummaryDto> noteSummaryDtos = noteMapper.toSummaryDtos(summaries);
+
+        NoteSummaryPageResponseDto noteSummaryPageResponseDto = new NoteSummaryPageResponseDto();
+        noteSummaryPageResponseDto.setSummaries(noteSummaryDtos);
+        noteSummaryPageResponseDto.setHasMore(hasMore);
+        if (hasMore) {
+            NoteSummary last = summaries.get(summaries.size() - 1);
+            noteSummaryPageResponseDto.setNextCursor(new NoteCursor(last.getUpdatedAt(), last.getNoteId()).encode());
+        }
+
+        log.info("NOTE_SERVICE - GET_NOTE_SUMMARIES ::: Found {} note summaries for user ID: {}", noteSummaryDtos.size(), userId);
+
+        return noteSummaryPageResponseDto;
+    }
+
+    private NotePageResponseDto loadNotePage(UUID userId, String cursor, int pageSize) {
+        // Fetch one extra row to find out whether another page exists
+        List<Note> notes;
+        if (cursor == null) {
+            notes = noteRepo.findByUserIdOrderByUpdatedAtDescNoteIdDesc(userId, Limit.of(pageSize + 1));
+        } else {
+            NoteCursor after = NoteCursor.decode(cursor);
+            notes = noteRepo.findPageAfter(userId, after.updatedAt(), after.noteId(), Limit.of(pageSize + 1));
+        }
+
+        boolean hasMore = notes.size() > pageSize;
+        if (hasMore) {
+            notes = notes.subList(0, pageSize);
+        }
 
-        log.info("NOTE_SERVICE - GET_NOTES ::: Found {} notes for user ID: {}", noteResponseDtos.size(), userId);
+        List<NoteResponseDto> noteResponseDtos = noteMapper.toResponseDtos(notes);
+
+        NotePageResponseDto notePageResponseDto = new NotePageResponseDto();
+        notePageResponseDto.setNotes(noteResponseDtos);
+        notePageResponseDto.setHasMore(hasMore);
+        if (hasMore) {
+            Note last = notes.get(notes.size() - 1);
+            notePageResponseDto.setNextCursor(new NoteCursor(last.getUpdatedAt(), last.getNoteId()).encode());
+        }
+
+        return notePageResponseDto;
+    }
+
+    @Transactional(readOnly = true)
+    public List<NoteResponseDto> getRecentNotes(
+            UUID userId,
+            Instant modifiedSince,
+            Instant createdFrom,
+            Instant createdTo,
+            Integer limit
+    ) {
+        log.info("NOTE_SERVICE - GET_RECENT_NOTES ::: Fetching recent notes for user ID: {}", userId);
+
+        int pageSize = pageSize(limit);
+        boolean createdRange = createdFrom != null || createdTo != null;
+        if (createdRange && modifiedSince != null) {
+            throw new InvalidNoteQueryException("Use either modifiedSince or createdFrom/createdTo, not both");
+        }
+
+        List<Note> notes;
+        if (createdRange) {
+            Instant from = createdFrom == null ? Instant.EPOCH : createdFrom;
+            Instant to = createdTo == null ? Instant.now() : createdTo;
+            if (from.isAfter(to)) {
+                throw new InvalidNoteQueryException("createdFrom must not be after createdTo");
+            }
+            notes = noteRepo.findByUserIdAndCreatedAtBetweenOrderByCreatedAtDescNoteIdDesc(userId, from, to, Limit.of(pageSize));
+        } else if (modifiedSince != null) {
+            notes = noteRepo.findByUserIdAndUpdatedAtGreaterThanOrderByUpdatedAtDescNoteIdDesc(userId, modifiedSince, Limit.of(pageSize));
+        } else {
+            notes = noteRepo.findByUserIdOrderByUpdatedAtDescNoteIdDesc(userId, Limit.of(pageSize));
+        }
+
+        List<NoteResponseDto> noteResponseDtos = noteMapper.toResponseDtos(notes);
+
+        log.info("NOTE_SERVICE - GET_RECENT_NOTES ::: Found {} notes for user ID: {}", noteResponseDtos.size(), userId);
 
         return noteResponseDtos;
     }
 
+    // Rows arrive as unmanaged Note instances, so the persistence context stays empty however many are read
+    @Transactional(readOnly = true)
+    public long exportNotes(UUID userId, OutputStream outputStream) throws IOException {
+        log.info("NOTE_SERVICE - EXPORT_NOTES ::: Exporting notes for user ID: {}", userId);
+
+        long count = 0;
+        try (Stream<Note> notes = noteRepo.streamAllByUserId(userId)) {
+            Iterator<Note> iterator = notes.iterator();
+            while (iterator.hasNext()) {
+                Note note = iterator.next();
+
+                outputStream.write(objectMapper.writeValueAsBytes(noteMapper.toResponseDto(note)));
+                outputStream.write('\n');
+
+                // Push the first row out immediately, then flush in batches
+                if (++count == 1 || count % EXPORT_FLUSH_INTERVAL == 0) {
+                    outputStream.flush();
+                }
+            }
+        }
+        outputStream.flush();
+
+        log.info("NOTE_SERVICE - EXPORT_NOTES ::: Exported {} notes for user ID: {}", count, userId);
+
+        return count;
+    }
+
+    @Transactional(readOnly = true)
+    public List<NoteSearchResultDto> searchNotes(UUID userId, String query, Integer limit) {
+        log.info("NOTE_SERVICE - SEARCH_NOTES ::: Searching notes for user ID: {}", userId);
+
+        int topK = Math.min(Math.max(limit == null ? DEFAULT_SEARCH_LIMIT : limit, 1), MAX_PAGE_SIZE);
+        List<NoteSearchResultDto> results = noteSearchService.search(userId, query, topK);
+
+        log.info("NOTE_SERVICE - SEARCH_NOTES ::: Found {} matching notes for user ID: {}", results.size(), userId);
+
+        return results;
+    }
+
+    @Transactional(readOnly = true)
     public NoteResponseDto getNote(UUID userId, UUID noteId) {
         log.info("NOTE_SERVICE - GET_NOTE ::: Fetching note with ID for user {}: {}", noteId, userId);
 
-        Optional<Note> existingNoteOpt = noteRepo.findByUserIdAndNoteId(userId, noteId);
-        if (existingNoteOpt.isEmpty()) {
-            log.error("NOTE_SERVICE - GET_NOTE ::: Note with ID {} not found for user {}", noteId, userId);
-            throw new GetNoteException("Note not found");
-        }
+        return noteCache.getNote(userId, noteId, () -> {
+            Optional<Note> existingNoteOpt = noteRepo.findWithBodyByUserIdAndNoteId(userId, noteId);
+            if (existingNoteOpt.isEmpty()) {
+                log.error("NOTE_SERVICE - GET_NOTE ::: Note with ID {} not found for user {}", noteId, userId);
+                throw new GetNoteException("Note not found");
+            }
 
-        NoteResponseDto noteResponseDto = new NoteResponseDto();
-        BeanUtils.copyProperties(existingNoteOpt.get(), noteResponseDto);
-
-        return noteResponseDto;
+            return noteMapper.toResponseDto(existingNoteOpt.get());
+        });
     }
 
+    @Transactional
     public NoteResponseDto editNote(UUID userId, UUID noteId, NoteRequestDto editNoteRequestDto) {
         log.info("NOTE_SERVICE - EDIT_NOTE ::: Editing note with ID: {} for user ID: {}", noteId, userId);
 
@@ -85,48 +305,152 @@ public class NoteService {
         }
 
         Note existingNote = existingNoteOpt.get();
-        existingNote.setTitle(editNoteRequestDto.getTitle());
-        existingNote.setBody(editNoteRequestDto.getBody());
+        noteMapper.applyRequest(existingNote, editNoteRequestDto);
+        existingNote.setSyncVersion(noteSyncService.nextSyncVersion(userId));
 
-        noteRepo.save(existingNote);
+        // Flush so @UpdateTimestamp is applied before the response is built
+        noteRepo.saveAndFlush(existingNote);
+        TransactionCallbacks.afterCommit(() -> {
+            readYourWritesTracker.recordWrite(userId);
+            noteCache.invalidate(userId, List.of(noteId));
+            noteSearchService.indexNote(existingNote);
+        });
+        noteEventBus.publish(NoteChangeEvent.changed(userId, existingNote.getSyncVersion(), List.of(noteId)));
 
-        NoteResponseDto noteResponseDto = new NoteResponseDto();
-        BeanUtils.copyProperties(existingNote, noteResponseDto);
+        NoteResponseDto noteResponseDto = noteMapper.toResponseDto(existingNote);
 
         log.info("NOTE_SERVICE - EDIT_NOTE ::: Note with ID {} edited successfully", noteId);
 
         return noteResponseDto;
     }
 
+    @Transactional
+    public NoteResponseDto patchNote(UUID userId, UUID noteId, NotePatchRequestDto notePatchRequestDto) {
+        log.info("NOTE_SERVICE - PATCH_NOTE ::: Patching note with ID: {} for user ID: {}", noteId, userId);
+
+        if (notePatchRequestDto.getBaseVersion() == null) {
+            throw new InvalidNotePatchException("baseVersion is required");
+        }
+
+        Note existingNote = noteRepo.findByUserIdAndNoteId(userId, noteId)
+                .orElseThrow(() -> {
+                    log.error("NOTE_SERVICE - PATCH_NOTE ::: Note with ID {} not found for user {}", noteId, userId);
+                    return new GetNoteException("Note not found");
+                });
+
+        if (!existingNote.getVersion().equals(notePatchRequestDto.getBaseVersion())) {
+            log.warn("NOTE_SERVICE - PATCH_NOTE ::: Stale version {} for note {}, current version is {}",
+                    notePatchRequestDto.getBaseVersion(), noteId, existingNote.getVersion());
+            throw new NoteVersionConflictException("Note has changed since version " + notePatchRequestDto.getBaseVersion(),
+                    noteMapper.toResponseDto(existingNote));
+        }
+
+        if (notePatchRequestDto.getTitle() != null) {
+            existingNote.setTitle(notePatchRequestDto.getTitle());
+        }
+        List<NoteTextEditDto> bodyEdits = notePatchRequestDto.getBodyEdits();
+        if (bodyEdits != null && !bodyEdits.isEmpty()) {
+            existingNote.setBody(TextPatch.apply(existingNote.getBody(), bodyEdits));
+        }
+        existingNote.setSyncVersion(noteSyncService.nextSyncVersion(userId));
+
+        // The UPDATE is conditional on the version read above, which catches a writer that got in after the check
+        try {
+            noteRepo.saveAndFlush(existingNote);
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("NOTE_SERVICE - PATCH_NOTE ::: Note {} was changed concurrently", noteId);
+            // Null only if the note was deleted in the meantime
+            NoteResponseDto currentNote = newTransactionTemplate.execute(status ->
+                    noteRepo.findWithBodyByUserIdAndNoteId(userId, noteId).map(noteMapper::toResponseDto).orElse(null));
+            throw new NoteVersionConflictException("Note was changed concurrently", currentNote);
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            readYourWritesTracker.recordWrite(userId);
+            noteCache.invalidate(userId, List.of(noteId));
+            noteSearchService.indexNote(existingNote);
+        });
+        noteEventBus.publish(NoteChangeEvent.changed(userId, existingNote.getSyncVersion(), List.of(noteId)));
+
+        log.info("NOTE_SERVICE - PATCH_NOTE ::: Note with ID {} patched to version {}", noteId, existingNote.getVersion());
+
+        return noteMapper.toResponseDto(existingNote);
+    }
+
+    @Transactional
     public void deleteNote(UUID userId, UUID noteId) {
         log.info("NOTE_SERVICE - DELETE_NOTE ::: Deleting note with ID: {} for user ID: {}", noteId, userId);
 
-        Optional<Note> existingNoteOpt = noteRepo.findByUserIdAndNoteId(userId, noteId);
-        if (existingNoteOpt.isEmpty()) {
+        long syncVersion = noteSyncService.nextSyncVersion(userId);
+        int deleted = noteRepo.deleteByUserIdAndNoteId(userId, noteId);
+        if (deleted == 0) {
             log.error("NOTE_SERVICE - DELETE_NOTE ::: Note with ID {} not found for user {}", noteId, userId);
             throw new GetNoteException("Note not found");
         }
-
-        noteRepo.delete(existingNoteOpt.get());
+        noteSyncService.recordDeletes(userId, syncVersion, List.of(noteId));
+        TransactionCallbacks.afterCommit(() -> {
+            readYourWritesTracker.recordWrite(userId);
+            noteCache.invalidate(userId, List.of(noteId));
+            noteSearchService.removeNotes(userId, List.of(noteId));
+        });
+        noteEventBus.publish(NoteChangeEvent.deleted(userId, syncVersion, List.of(noteId)));
 
         log.info("NOTE_SERVICE - DELETE_NOTE ::: Note with ID {} deleted successfully", noteId);
     }
 
-    public void deleteMultipleNotes(UUID userId, DeleteMultipleRequestDto deleteMultipleRequestDto) {
+    @Transactional
+    public DeleteMultipleResponseDto deleteMultipleNotes(UUID userId, DeleteMultipleRequestDto deleteMultipleRequestDto) {
         log.info("NOTE_SERVICE - DELETE_MULTIPLE_NOTES ::: Deleting notes for user ID: {}", userId);
 
-        List<Note> notesToDelete = noteRepo.findAllByUserId(userId).stream()
-                .filter(note -> deleteMultipleRequestDto.getNoteIds().contains(note.getNoteId()))
+        List<UUID> requestedIds = deleteMultipleRequestDto.getNoteIds() == null
+                ? List.of()
+                : new ArrayList<>(new LinkedHashSet<>(deleteMultipleRequestDto.getNoteIds()));
+
+        Set<UUID> deletedIds = new HashSet<>(requestedIds.size());
+        long syncVersion = requestedIds.isEmpty() ? 0 : noteSyncService.nextSyncVersion(userId);
+        if (!requestedIds.isEmpty()) {
+            for (int from = 0; from < requestedIds.size(); from += DELETE_CHUNK_SIZE) {
+                List<UUID> chunk = requestedIds.subList(from, Math.min(from + DELETE_CHUNK_SIZE, requestedIds.size()));
+                deletedIds.addAll(noteRepo.deleteAllByUserIdAndNoteIdIn(userId, chunk));
+            }
+            noteSyncService.recordDeletes(userId, syncVersion, deletedIds);
+        }
+
+        TransactionCallbacks.afterCommit(() -> {
+            readYourWritesTracker.recordWrite(userId);
+            noteCache.invalidate(userId, deletedIds);
+            noteSearchService.removeNotes(userId, deletedIds);
+        });
+        if (!deletedIds.isEmpty()) {
+            noteEventBus.publish(NoteChangeEvent.deleted(userId, syncVersion, deletedIds));
+        }
+
+        List<UUID> notFoundIds = requestedIds.stream()
+                .filter(noteId -> !deletedIds.contains(noteId))
                 .toList();
 
-        if (notesToDelete.isEmpty()) {
+        DeleteMultipleResponseDto deleteMultipleResponseDto = new DeleteMultipleResponseDto();
+        deleteMultipleResponseDto.setDeletedCount(deletedIds.size());
+        deleteMultipleResponseDto.setNotFoundIds(notFoundIds);
+
+        if (deletedIds.isEmpty()) {
             log.warn("NOTE_SERVICE - DELETE_MULTIPLE_NOTES ::: No notes found to delete for user ID: {}", userId);
-            return;
+        } else {
+            log.info("NOTE_SERVICE - DELETE_MULTIPLE_NOTES ::: Successfully deleted {} notes for user ID: {}", deletedIds.size(), userId);
         }
 
-        noteRepo.deleteAll(notesToDelete);
+        return deleteMultipleResponseDto;
+    }
+
+    public NoteCacheStatsDto getCacheStats() {
+        return noteCache.stats();
+    }
+
+    private static int pageSize(Integer limit) {
+        return Math.min(Math.max(limit == null ? DEFAULT_PAGE_SIZE : limit, 1), MAX_PAGE_SIZE);
+    }
 
-        log.info("NOTE_SERVICE - DELETE_MULTIPLE_NOTES ::: Successfully deleted {} notes for user ID: {}", notesToDelete.size(), userId);
+    private static String normalizeCursor(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : cursor;
     }
 
 }
@@ -0,0 +1,182 @@
+package org.vs.notesbe.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vs.notesbe.dto.NoteSyncResponseDto;
+import org.vs.notesbe.exception.GetNoteException;
+import org.vs.notesbe.mapper.NoteMapper;
+import org.vs.notesbe.model.Note;
+import org.vs.notesbe.model.NoteTombstone;
+import org.vs.notesbe.repository.NoteRepo;
+import org.vs.notesbe.repository.NoteTombstoneRepo;
+import org.vs.notesbe.sharding.ShardRouter;
+import org.vs.notesbe.sharding.ShardedByUser;
+import org.vs.notesbe.util.SyncCursor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@ShardedByUser
+@Timed(value = "notes.service", histogram = true)
+public class NoteSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteSyncService.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final Duration COMPACTION_GRACE = Duration.ofHours(1);
+
+    private static final String INSERT_TOMBSTONE_SQL = """
+            INSERT INTO note_tombstones (n_id, u_id, sync_version, deleted_at) VALUES (?, ?, ?, now())
+            ON CONFLICT (n_id) DO UPDATE SET sync_version = EXCLUDED.sync_version, deleted_at = EXCLUDED.deleted_at
+            """;
+
+    // Locks the user's counter row until commit, so concurrent writers of one user get versions in commit order
+    private static final String NEXT_SYNC_VERSION_SQL = """
+            INSERT INTO note_sync_counters (u_id, sync_version) VALUES (?, 1)
+            ON CONFLICT (u_id) DO UPDATE SET sync_version = note_sync_counters.sync_version + 1
+            RETURNING sync_version
+            """;
+
+    private final NoteRepo noteRepo;
+    private final NoteTombstoneRepo noteTombstoneRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final NoteMapper noteMapper;
+    private final Duration tombstoneRetention;
+
+    public NoteSyncService(
+            NoteRepo noteRepo,
+            NoteTombstoneRepo noteTombstoneRepo,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ShardRouter shardRouter,
+            NoteMapper noteMapper,
+            @Value("${notes.sync.tombstone-retention:P30D}") Duration tombstoneRetention
+    ) {
+        this.noteRepo = noteRepo;
+        this.noteTombstoneRepo = noteTombstoneRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.noteMapper = noteMapper;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    // Must be called inside the write transaction that changes the user's notes. The upsert would create a
+    // counter for any id, and users live on the primary shard only, so this is where unknown users are refused.
+    public long nextSyncVersion(UUID userId) {
+        if (!shardRouter.userExists(userId)) {
+            throw new GetNoteException("User not found");
+        }
+        return jdbcTemplate.queryForObject(NEXT_SYNC_VERSION_SQL, Long.class, userId);
+    }
+
+    public void recordDeletes(UUID userId, long syncVersion, Collection<UUID> noteIds) {
+        if (noteIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_TOMBSTONE_SQL, noteIds, noteIds.size(), (ps, noteId) -> {
+            ps.setObject(1, noteId);
+            ps.setObject(2, userId);
+            ps.setLong(3, syncVersion);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public NoteSyncResponseDto getChanges(UUID userId, String cursor, Integer limit) {
+        log.info("NOTE_SYNC_SERVICE - GET_CHANGES ::: Fetching changes for user ID: {}", userId);
+
+        boolean initialSync = cursor == null || cursor.isBlank();
+        SyncCursor from = initialSync ? SyncCursor.start() : SyncCursor.decode(cursor);
+        int pageSize = Math.min(Math.max(limit == null ? DEFAULT_PAGE_SIZE : limit, 1), MAX_PAGE_SIZE);
+
+        NoteSyncResponseDto response = new NoteSyncResponseDto();
+        response.setChanged(new ArrayList<>());
+        response.setDeleted(new ArrayList<>());
+        response.setHasMore(false);
+        response.setResetRequired(false);
+
+        // Tombstones older than the retention window may be gone, so such a client has to start over
+        long now = System.currentTimeMillis();
+        if (!initialSync && from.issuedAt() < now - tombstoneRetention.toMillis()) {
+            log.warn("NOTE_SYNC_SERVICE - GET_CHANGES ::: Cursor expired for user ID: {}", userId);
+            response.setResetRequired(true);
+            return response;
+        }
+
+        List<Note> notes = noteRepo.findChangesAfter(userId, from.syncVersion(), from.noteId(), Limit.of(pageSize + 1));
+        List<NoteTombstone> tombstones = noteTombstoneRepo.findChangesAfter(
+                userId, from.syncVersion(), from.noteId(), Limit.of(pageSize + 1));
+
+        // Merge both streams in (syncVersion, noteId) order, matching the database's ordering
+        int i = 0;
+        int j = 0;
+        long lastVersion = from.syncVersion();
+        UUID lastNoteId = from.noteId();
+        while (i + j < pageSize && (i < notes.size() || j < tombstones.size())) {
+            boolean takeNote = j >= tombstones.size()
+                    || (i < notes.size() && compare(notes.get(i).getSyncVersion(), notes.get(i).getNoteId(),
+                    tombstones.get(j).getSyncVersion(), tombstones.get(j).getNoteId()) < 0);
+            if (takeNote) {
+                Note note = notes.get(i++);
+                response.getChanged().add(noteMapper.toResponseDto(note));
+                lastVersion = note.getSyncVersion();
+                lastNoteId = note.getNoteId();
+            } else {
+                NoteTombstone tombstone = tombstones.get(j++);
+                response.getDeleted().add(tombstone.getNoteId());
+                lastVersion = tombstone.getSyncVersion();
+                lastNoteId = tombstone.getNoteId();
+            }
+        }
+
+        boolean hasMore = i < notes.size() || j < tombstones.size();
+        response.setHasMore(hasMore);
+        // A caught-up client is current as of now; a paging client keeps the original issue time
+        response.setCursor(new SyncCursor(lastVersion, lastNoteId, hasMore ? from.issuedAt() : now).encode());
+
+        log.info("NOTE_SYNC_SERVICE - GET_CHANGES ::: Returning {} changed and {} deleted notes for user ID: {}",
+                response.getChanged().size(), response.getDeleted().size(), userId);
+
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${notes.sync.compaction-interval:PT1H}")
+    public void compactTombstones() {
+        Instant cutoff = Instant.now().minus(tombstoneRetention).minus(COMPACTION_GRACE);
+        // A transaction is bound to one database, so each shard is compacted in its own
+        for (String shard : shardRouter.shards()) {
+            int removed = shardRouter.callOnShard(shard,
+                    () -> transactionTemplate.execute(status -> noteTombstoneRepo.deleteAllDeletedBefore(cutoff)));
+            if (removed > 0) {
+                log.info("NOTE_SYNC_SERVICE - COMPACT_TOMBSTONES ::: Removed {} tombstones on {} deleted before {}",
+                        removed, shard, cutoff);
+            }
+        }
+    }
+
+    // PostgreSQL orders uuids as unsigned bytes, which is not what UUID.compareTo does
+    private static int compare(long versionA, UUID idA, long versionB, UUID idB) {
+        int byVersion = Long.compare(versionA, versionB);
+        if (byVersion != 0) {
+            return byVersion;
+        }
+        int byHigh = Long.compareUnsigned(idA.getMostSignificantBits(), idB.getMostSignificantBits());
+        return byHigh != 0 ? byHigh : Long.compareUnsigned(idA.getLeastSignificantBits(), idB.getLeastSignificantBits());
+    }
+}
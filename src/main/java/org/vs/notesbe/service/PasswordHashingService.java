@@ -0,0 +1,122 @@
+package org.vs.notesbe.service;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.vs.notesbe.exception.PasswordHashingBusyException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// BCrypt is CPU-bound, so it runs on a few platform threads of its own instead of request threads.
+// When the queue is full callers get a 503 right away rather than piling up behind a login burst.
+@Service
+@Timed(value = "notes.service", histogram = true)
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private final ThreadPoolExecutor executor;
+    private final BCryptPasswordEncoder encoder;
+    private final int cost;
+
+    public PasswordHashingService(
+            @Value("${notes.auth.hashing.threads:0}") int threads,
+            @Value("${notes.auth.hashing.queue-capacity:100}") int queueCapacity,
+            @Value("${notes.auth.bcrypt.target-hash-time:PT0.25S}") Duration targetHashTime,
+            @Value("${notes.auth.bcrypt.min-cost:10}") int minCost,
+            @Value("${notes.auth.bcrypt.max-cost:14}") int maxCost
+    ) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.cost = calibrate(targetHashTime, minCost, maxCost);
+        this.encoder = new BCryptPasswordEncoder(cost);
+
+        log.info("PASSWORD_HASHING_SERVICE ::: Using BCrypt cost {} on {} threads with a queue of {}",
+                cost, poolSize, queueCapacity);
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    // True when the hash was made at another cost than the calibrated one, in either direction
+    public boolean needsRehash(String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return !matcher.find() || Integer.parseInt(matcher.group(1)) != cost;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("PASSWORD_HASHING_SERVICE ::: Hashing queue full, rejecting request");
+            throw new PasswordHashingBusyException("Too many authentication requests, try again shortly");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    // Each cost step doubles the work, so one timed hash at the minimum cost predicts the rest
+    private static int calibrate(Duration targetHashTime, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode(CALIBRATION_PASSWORD);
+
+        long start = System.nanoTime();
+        probe.encode(CALIBRATION_PASSWORD);
+        long elapsed = Math.max(System.nanoTime() - start, 1);
+
+        int cost = minCost;
+        while (cost < maxCost && elapsed * 2 <= targetHashTime.toNanos()) {
+            elapsed *= 2;
+            cost++;
+        }
+
+        log.info("PASSWORD_HASHING_SERVICE - CALIBRATE ::: Cost {} estimated at {} ms (target {} ms)",
+                cost, elapsed / 1_000_000, targetHashTime.toMillis());
+        return cost;
+    }
+}
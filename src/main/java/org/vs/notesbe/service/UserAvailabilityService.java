@@ -0,0 +1,133 @@
+package org.vs.notesbe.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.vs.notesbe.repository.UserIdentity;
+import org.vs.notesbe.repository.UserRepo;
+import org.vs.notesbe.util.BloomFilter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Answers "is this taken?" from Bloom filters of every username and email. A negative answer is
+// certain and never touches the database; only possible hits are confirmed with a query.
+//
+// Signups on this node are added right away; those on other nodes are picked up by a periodic query for
+// recently created users, so for up to one refresh interval a name taken elsewhere can read as available.
+// Signup itself never relies on that answer: the unique constraints decide.
+@Service
+public class UserAvailabilityService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserAvailabilityService.class);
+
+    // Covers commits that land after a refresh ran but carry an earlier created_at, clock skew between nodes
+    // and replica lag; adding a value to a filter twice is harmless
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final UserRepo userRepo;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+
+    // Null until warmed; replaced wholesale so readers never see a half-built filter
+    private volatile Filters filters;
+
+    // The filters being warmed, so signups that commit after the warm-up query started are not lost
+    private volatile Filters warming;
+
+    // Start of the last warm-up or refresh
+    private volatile Instant refreshedAt;
+
+    public UserAvailabilityService(
+            UserRepo userRepo,
+            @Value("${notes.users.availability.expected-users:1000000}") long expectedUsers,
+            @Value("${notes.users.availability.false-positive-rate:0.01}") double falsePositiveRate
+    ) {
+        this.userRepo = userRepo;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warm() {
+        long start = System.nanoTime();
+
+        // Leave headroom so signups after startup do not push the false positive rate up
+        Instant startedAt = Instant.now();
+        long capacity = Math.max(expectedUsers, userRepo.count() * 2);
+        Filters warmed = new Filters(
+                new BloomFilter(capacity, falsePositiveRate),
+                new BloomFilter(capacity, falsePositiveRate));
+        warming = warmed;
+        long loaded = 0;
+        try (Stream<UserIdentity> identities = userRepo.streamAllIdentities()) {
+            for (UserIdentity identity : (Iterable<UserIdentity>) identities::iterator) {
+                warmed.userNames().put(identity.getUserName());
+                warmed.emails().put(identity.getEmail());
+                loaded++;
+            }
+        }
+        filters = warmed;
+        warming = null;
+        refreshedAt = startedAt;
+
+        log.info("USER_AVAILABILITY_SERVICE - WARM ::: Loaded {} users into availability filters in {} ms",
+                loaded, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${notes.users.availability.refresh-interval:PT5S}")
+    public void refresh() {
+        Instant since = refreshedAt;
+        if (since == null) {
+            return;
+        }
+        Instant startedAt = Instant.now();
+        List<UserIdentity> created = userRepo.findIdentitiesCreatedSince(since.minus(REFRESH_OVERLAP));
+        for (UserIdentity identity : created) {
+            register(identity.getUserName(), identity.getEmail());
+        }
+        refreshedAt = startedAt;
+    }
+
+    public boolean isUserNameAvailable(String userName) {
+        Filters current = filters;
+        if (current != null && !current.userNames().mightContain(userName)) {
+            return true;
+        }
+        return !userRepo.existsByUserName(userName);
+    }
+
+    public boolean isEmailAvailable(String email) {
+        Filters current = filters;
+        if (current != null && !current.emails().mightContain(email)) {
+            return true;
+        }
+        return !userRepo.existsByEmail(email);
+    }
+
+    // True when either value may already be registered and the database has to be asked
+    public boolean mightBeTaken(String userName, String email) {
+        Filters current = filters;
+        return current == null || current.userNames().mightContain(userName) || current.emails().mightContain(email);
+    }
+
+    public void register(String userName, String email) {
+        for (Filters target : new Filters[]{warming, filters}) {
+            if (target != null) {
+                target.userNames().put(userName);
+                target.emails().put(email);
+            }
+        }
+    }
+
+    private record Filters(BloomFilter userNames, BloomFilter emails) {
+    }
+}
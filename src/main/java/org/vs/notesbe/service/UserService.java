@@ -1,45 +1,60 @@
 package org.vs.notesbe.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.vs.notesbe.dto.UserSignInRequestDto;
 import org.vs.notesbe.dto.UserSignUpRequestDto;
 import org.vs.notesbe.exception.SigninException;
 import org.vs.notesbe.exception.SignupException;
+import org.vs.notesbe.mapper.UserMapper;
 import org.vs.notesbe.model.User;
 import org.vs.notesbe.repository.UserRepo;
 
 @Service
+@Timed(value = "notes.service", histogram = true)
 public class UserService {
 
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepo userRepo;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final UserMapper userMapper;
+    private final UserAvailabilityService userAvailabilityService;
 
-    public UserService(UserRepo userRepo, PasswordEncoder passwordEncoder) {
+    public UserService(
+            UserRepo userRepo,
+            PasswordHashingService passwordHashingService,
+            UserMapper userMapper,
+            UserAvailabilityService userAvailabilityService
+    ) {
         this.userRepo = userRepo;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
+        this.userMapper = userMapper;
+        this.userAvailabilityService = userAvailabilityService;
     }
 
     public User signup(UserSignUpRequestDto requestDto) {
-        if (userRepo.findByEmail(requestDto.getEmail()) != null) {
-            log.error("USER_SERVICE - SIGNUP ::: Signup failed: User already exists with email {}", requestDto.getEmail());
-            throw new SignupException("User already exists");
-        }
-        if (userRepo.findByUserName(requestDto.getUserName()) != null) {
-            log.error("USER_SERVICE - SIGNUP ::: Signup failed: User already exists with username {}", requestDto.getUserName());
+        // Cheap pre-check so an obvious duplicate does not cost a BCrypt hash; the unique constraints decide
+        if (userAvailabilityService.mightBeTaken(requestDto.getUserName(), requestDto.getEmail())
+                && userRepo.existsByUserNameOrEmail(requestDto.getUserName(), requestDto.getEmail())) {
+            log.error("USER_SERVICE - SIGNUP ::: Signup failed: User already exists with username {} or email {}",
+                    requestDto.getUserName(), requestDto.getEmail());
             throw new SignupException("User already exists");
         }
 
-        User user = new User();
-        user.setUserName(requestDto.getUserName());
-        user.setPassword(passwordEncoder.encode(requestDto.getPassword()));
-        user.setEmail(requestDto.getEmail());
+        User user = userMapper.toUser(requestDto, passwordHashingService.encode(requestDto.getPassword()));
 
-        userRepo.save(user);
+        try {
+            userRepo.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            log.error("USER_SERVICE - SIGNUP ::: Signup failed: User already exists with username {} or email {}",
+                    requestDto.getUserName(), requestDto.getEmail());
+            throw new SignupException("User already exists");
+        }
+        userAvailabilityService.register(user.getUserName(), user.getEmail());
 
         log.info("USER_SERVICE - SIGNUP ::: User {} signed up successfully", user.getUserName());
 
@@ -52,14 +67,31 @@ public class UserService {
             log.error("USER_SERVICE - SIGNIN ::: Signin failed: Invalid username or password for user {}", requestDto.getUserName());
             throw new SigninException("Invalid username or password");
         }
-        boolean passwordMatches = passwordEncoder.matches(requestDto.getPassword(), user.getPassword());
+        boolean passwordMatches = passwordHashingService.matches(requestDto.getPassword(), user.getPassword());
         if (!passwordMatches) {
             log.error("USER_SERVICE - SIGNIN ::: Signin failed: Invalid username or password for user {}", requestDto.getUserName());
             throw new SigninException("Invalid username or password");
         }
 
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            rehashPassword(user, requestDto.getPassword());
+        }
+
         log.info("USER_SERVICE - SIGNIN ::: User {} signed in successfully", user.getUserName());
 
         return user;
     }
+
+    // Best effort: a failed rehash must not fail the sign-in, the next one will try again
+    private void rehashPassword(User user, String rawPassword) {
+        try {
+            String newHash = passwordHashingService.encode(rawPassword);
+            if (userRepo.updatePassword(user.getUserId(), user.getPassword(), newHash) == 1) {
+                user.setPassword(newHash);
+                log.info("USER_SERVICE - SIGNIN ::: Rehashed password for user {} at the current cost", user.getUserName());
+            }
+        } catch (RuntimeException e) {
+            log.warn("USER_SERVICE - SIGNIN ::: Could not rehash password for user {}: {}", user.getUserName(), e.getMessage());
+        }
+    }
 }
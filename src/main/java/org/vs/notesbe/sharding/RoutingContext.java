@@ -0,0 +1,34 @@
+package org.vs.notesbe.sharding;
+
+import org.vs.notesbe.datasource.ReplicaDataSource;
+
+// The thread-bound routing state of a request: the shard it is on and whether its reads are pinned to the
+// primary. Work handed to another thread, like a streamed export, captures it first and runs within it.
+public record RoutingContext(String shard, boolean pinnedToPrimary) {
+
+    @FunctionalInterface
+    public interface RoutedCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    public static RoutingContext capture() {
+        return new RoutingContext(ShardContext.current(), ReplicaDataSource.isPinnedToPrimary());
+    }
+
+    public <T, E extends Exception> T call(RoutedCall<T, E> call) throws E {
+        String previousShard = ShardContext.current();
+        boolean previouslyPinned = ReplicaDataSource.isPinnedToPrimary();
+        ShardContext.set(shard);
+        if (pinnedToPrimary) {
+            ReplicaDataSource.pinToPrimary();
+        }
+        try {
+            return call.call();
+        } finally {
+            ShardContext.set(previousShard);
+            if (!previouslyPinned) {
+                ReplicaDataSource.unpin();
+            }
+        }
+    }
+}
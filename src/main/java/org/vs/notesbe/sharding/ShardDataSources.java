@@ -0,0 +1,23 @@
+package org.vs.notesbe.sharding;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.Set;
+
+// The write pool of every shard, for the rebalancer and the override directory; the application itself only
+// sees them through the routing DataSource bean.
+public record ShardDataSources(String primaryShard, Map<String, DataSource> primaries, Set<String> joining) {
+
+    public ShardDataSources {
+        primaries = Map.copyOf(primaries);
+        joining = Set.copyOf(joining);
+    }
+
+    public DataSource primary(String shard) {
+        DataSource dataSource = primaries.get(shard);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown shard: " + shard);
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,216 @@
+package org.vs.notesbe.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Moves the users ShardRouter pinned to their old shard (their ring position moved to a joining shard) onto
+// their new shard while the app keeps serving. Users created since the shards joined are already in place. Each user is moved on its own: their operations wait on the user lock for the length of
+// the copy, everyone else is unaffected.
+//
+// Per user: wipe leftovers of an interrupted move on the target, copy notes, tombstones and the sync counter
+// in one target transaction, switch the routing override, then delete the rows on the old shard.
+//
+// The user lock lives in this JVM, so with several app instances the others must be stopped or drained
+// while a rebalance runs.
+@Component
+public class ShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private static final int USER_PAGE_SIZE = 1000;
+    private static final int COPY_BATCH_SIZE = 500;
+
+    private static final String SELECT_USERS_SQL = "SELECT u_id FROM users WHERE u_id > ? ORDER BY u_id LIMIT ?";
+
+    private static final String SELECT_NOTES_SQL = """
+            SELECT n_id, u_id, title, body, body_compressed, created_at, updated_at, sync_version, version FROM notes
+            WHERE u_id = ? AND n_id > ? ORDER BY n_id LIMIT ?
+            """;
+    private static final String INSERT_NOTE_SQL = """
+            INSERT INTO notes (n_id, u_id, title, body, body_compressed, created_at, updated_at, sync_version, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String SELECT_TOMBSTONES_SQL = """
+            SELECT n_id, u_id, sync_version, deleted_at FROM note_tombstones
+            WHERE u_id = ? AND n_id > ? ORDER BY n_id LIMIT ?
+            """;
+    private static final String INSERT_TOMBSTONE_SQL =
+            "INSERT INTO note_tombstones (n_id, u_id, sync_version, deleted_at) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_SYNC_COUNTER_SQL =
+            "INSERT INTO note_sync_counters (u_id, sync_version) VALUES (?, ?)";
+
+    private static final List<String> USER_TABLES = List.of("notes", "note_tombstones", "note_sync_counters");
+
+    private static final RowMapper<Object[]> NOTE_ROW = (rs, rowNum) -> new Object[]{
+            rs.getObject("n_id", UUID.class),
+            rs.getObject("u_id", UUID.class),
+            rs.getString("title"),
+            rs.getString("body"),
+            rs.getBytes("body_compressed"),
+            rs.getObject("created_at", OffsetDateTime.class),
+            rs.getObject("updated_at", OffsetDateTime.class),
+            rs.getLong("sync_version"),
+            rs.getLong("version")
+    };
+
+    private static final RowMapper<Object[]> TOMBSTONE_ROW = (rs, rowNum) -> new Object[]{
+            rs.getObject("n_id", UUID.class),
+            rs.getObject("u_id", UUID.class),
+            rs.getLong("sync_version"),
+            rs.getObject("deleted_at", OffsetDateTime.class)
+    };
+
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate directory;
+    private final Map<String, JdbcTemplate> jdbcTemplates = new HashMap<>();
+    private final Map<String, TransactionTemplate> transactionTemplates = new HashMap<>();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong usersScanned = new AtomicLong();
+    private final AtomicLong usersMoved = new AtomicLong();
+    private final AtomicLong notesMoved = new AtomicLong();
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String lastError;
+
+    public ShardRebalancer(ShardRouter shardRouter, ShardDataSources dataSources) {
+        this.shardRouter = shardRouter;
+        this.directory = new JdbcTemplate(dataSources.primary(dataSources.primaryShard()));
+        dataSources.primaries().forEach((shard, dataSource) -> {
+            jdbcTemplates.put(shard, new JdbcTemplate(dataSource));
+            transactionTemplates.put(shard, new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        });
+    }
+
+    // Returns false when a rebalance is already running
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        usersScanned.set(0);
+        usersMoved.set(0);
+        notesMoved.set(0);
+        startedAt = Instant.now();
+        finishedAt = null;
+        lastError = null;
+
+        Thread.ofVirtual().name("shard-rebalancer").start(() -> {
+            try {
+                rebalance();
+            } catch (RuntimeException e) {
+                lastError = e.getMessage();
+                log.error("SHARD_REBALANCER - REBALANCE ::: Failed after moving {} users", usersMoved.get(), e);
+            } finally {
+                finishedAt = Instant.now();
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("startedAt", startedAt);
+        status.put("finishedAt", finishedAt);
+        status.put("usersScanned", usersScanned.get());
+        status.put("usersMoved", usersMoved.get());
+        status.put("notesMoved", notesMoved.get());
+        status.put("error", lastError);
+        return status;
+    }
+
+    private void rebalance() {
+        log.info("SHARD_REBALANCER - REBALANCE ::: Rebalancing onto shards {}", shardRouter.shards());
+
+        UUID after = new UUID(0, 0);
+        List<UUID> page;
+        do {
+            page = directory.queryForList(SELECT_USERS_SQL, UUID.class, after, USER_PAGE_SIZE);
+            for (UUID userId : page) {
+                usersScanned.incrementAndGet();
+                if (!shardRouter.shardFor(userId).equals(shardRouter.targetShardFor(userId))) {
+                    moveUser(userId);
+                }
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == USER_PAGE_SIZE);
+
+        log.info("SHARD_REBALANCER - REBALANCE ::: Done: scanned {} users, moved {} users and {} notes",
+                usersScanned.get(), usersMoved.get(), notesMoved.get());
+    }
+
+    private void moveUser(UUID userId) {
+        shardRouter.withUserExclusive(userId, () -> {
+            String from = shardRouter.shardFor(userId);
+            String to = shardRouter.targetShardFor(userId);
+            if (from.equals(to)) {
+                return;
+            }
+
+            JdbcTemplate source = jdbcTemplates.get(from);
+            JdbcTemplate target = jdbcTemplates.get(to);
+
+            long notes = transactionTemplates.get(to).execute(status -> {
+                deleteUserRows(target, userId);
+                long copied = copyRows(source, target, SELECT_NOTES_SQL, INSERT_NOTE_SQL, NOTE_ROW, userId);
+                copyRows(source, target, SELECT_TOMBSTONES_SQL, INSERT_TOMBSTONE_SQL, TOMBSTONE_ROW, userId);
+                List<Long> counter = source.queryForList(
+                        "SELECT sync_version FROM note_sync_counters WHERE u_id = ?", Long.class, userId);
+                if (!counter.isEmpty()) {
+                    target.update(INSERT_SYNC_COUNTER_SQL, userId, counter.get(0));
+                }
+                return copied;
+            });
+
+            shardRouter.reassign(userId, to);
+            transactionTemplates.get(from).executeWithoutResult(status -> deleteUserRows(source, userId));
+
+            usersMoved.incrementAndGet();
+            notesMoved.addAndGet(notes);
+            log.info("SHARD_REBALANCER - MOVE_USER ::: Moved {} notes of user ID: {} from {} to {}", notes, userId, from, to);
+        });
+    }
+
+    // Keyset pages on n_id, so a user with many notes is never held in memory at once
+    private static long copyRows(JdbcTemplate source, JdbcTemplate target, String selectSql, String insertSql,
+                                 RowMapper<Object[]> rowMapper, UUID userId) {
+        long copied = 0;
+        UUID after = new UUID(0, 0);
+        List<Object[]> rows;
+        do {
+            rows = source.query(selectSql, rowMapper, userId, after, COPY_BATCH_SIZE);
+            if (!rows.isEmpty()) {
+                target.batchUpdate(insertSql, rows);
+                after = (UUID) rows.get(rows.size() - 1)[0];
+                copied += rows.size();
+            }
+        } while (rows.size() == COPY_BATCH_SIZE);
+        return copied;
+    }
+
+    private static void deleteUserRows(JdbcTemplate jdbcTemplate, UUID userId) {
+        for (String table : USER_TABLES) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE u_id = ?", userId);
+        }
+    }
+}
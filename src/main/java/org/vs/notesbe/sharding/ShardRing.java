@@ -0,0 +1,65 @@
+package org.vs.notesbe.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+// Consistent hash ring: every shard owns virtualNodes points and a user belongs to the first point at or
+// after the hash of their id, so adding a shard only moves the users whose points it takes over.
+public final class ShardRing {
+
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+    private final Set<String> shards;
+
+    public ShardRing(Collection<String> shards, int virtualNodes) {
+        if (shards.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("A shard ring needs at least one shard and one virtual node per shard");
+        }
+        for (String shard : shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(hash(shard + "#" + i), shard);
+            }
+        }
+        this.shards = new TreeSet<>(shards);
+    }
+
+    public String shardFor(UUID userId) {
+        Map.Entry<Long, String> point = points.ceilingEntry(mix(userId.getMostSignificantBits() ^ userId.getLeastSignificantBits()));
+        return (point != null ? point : points.firstEntry()).getValue();
+    }
+
+    public Set<String> shards() {
+        return shards;
+    }
+
+    // Point positions must not change between releases or JVMs, hence a fixed digest rather than hashCode
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            long h = 0;
+            for (int i = 0; i < 8; i++) {
+                h = (h << 8) | (digest[i] & 0xff);
+            }
+            return h;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Murmur3 finalizer: spreads the fixed version/variant bits of the uuid over the whole ring
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
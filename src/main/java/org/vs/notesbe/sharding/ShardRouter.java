@@ -0,0 +1,243 @@
+package org.vs.notesbe.sharding;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// Maps a user to the shard holding their notes: the hash ring of all configured shards, joining ones included,
+// unless user_shard_overrides (on the primary shard) places them elsewhere. While shards are joining, every
+// existing user whose position moved to a joining shard is pinned to their old shard by an override until the
+// rebalancer moves them, so users created meanwhile go straight to their final shard and nobody depends on
+// the joining flag being cleared at the right time. Every operation on a user's notes holds a shared lock on
+// that user, which the rebalancer takes exclusively while it moves them.
+@Component
+@DependsOnDatabaseInitialization
+public class ShardRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRouter.class);
+
+    private static final int LOCK_STRIPES = 4096;
+    private static final int PIN_PAGE_SIZE = 1000;
+    private static final int KNOWN_USERS_CACHE_SIZE = 100_000;
+
+    private static final String UPSERT_OVERRIDE_SQL = """
+            INSERT INTO user_shard_overrides (u_id, shard) VALUES (?, ?)
+            ON CONFLICT (u_id) DO UPDATE SET shard = EXCLUDED.shard
+            """;
+    private static final String INSERT_PIN_SQL =
+            "INSERT INTO user_shard_overrides (u_id, shard) VALUES (?, ?) ON CONFLICT DO NOTHING";
+    private static final String SELECT_USERS_SQL = "SELECT u_id FROM users WHERE u_id > ? ORDER BY u_id LIMIT ?";
+    // Counters cover every user that ever wrote since sync versions exist, notes the ones from before
+    private static final String SELECT_USERS_WITH_ROWS_SQL = """
+            SELECT u_id FROM note_sync_counters WHERE u_id IN (:userIds)
+            UNION SELECT DISTINCT u_id FROM notes WHERE u_id IN (:userIds)
+            """;
+
+    private final String primaryShard;
+    private final ShardRing ring;
+    private final ShardRing targetRing;
+    private final JdbcTemplate directory;
+    private final Map<UUID, String> overrides = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock[] locks = new ReentrantReadWriteLock[LOCK_STRIPES];
+    // Users are never deleted, so only ids not seen yet are looked up on the primary shard
+    private final Cache<UUID, Boolean> knownUsers = Caffeine.newBuilder().maximumSize(KNOWN_USERS_CACHE_SIZE).build();
+
+    public ShardRouter(ShardingProperties properties, ShardDataSources dataSources) {
+        Set<String> active = new HashSet<>(dataSources.primaries().keySet());
+        active.removeAll(dataSources.joining());
+
+        this.primaryShard = dataSources.primaryShard();
+        this.ring = new ShardRing(active, properties.virtualNodes());
+        this.targetRing = new ShardRing(dataSources.primaries().keySet(), properties.virtualNodes());
+        this.directory = new JdbcTemplate(dataSources.primary(primaryShard));
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+
+        loadOverrides(dataSources.primaries().keySet());
+        pinUnmovedUsers(dataSources);
+    }
+
+    @FunctionalInterface
+    public interface ShardCall<T> {
+        T call() throws Throwable;
+    }
+
+    public String shardFor(UUID userId) {
+        String override = overrides.get(userId);
+        return override != null ? override : targetRing.shardFor(userId);
+    }
+
+    // Where the user belongs once the rebalancer is done with them
+    public String targetShardFor(UUID userId) {
+        return targetRing.shardFor(userId);
+    }
+
+    public boolean userExists(UUID userId) {
+        if (knownUsers.getIfPresent(userId) != null) {
+            return true;
+        }
+        boolean exists = Boolean.TRUE.equals(directory.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM users WHERE u_id = ?)", Boolean.class, userId));
+        if (exists) {
+            knownUsers.put(userId, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    public <T> T callForUser(UUID userId, ShardCall<T> call) throws Throwable {
+        Lock lock = lockFor(userId).readLock();
+        lock.lock();
+        try {
+            return runOn(shardFor(userId), call);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // For work that is not about one user, like tombstone compaction, which has to visit every shard
+    public <T> T callOnShard(String shard, Supplier<T> call) {
+        try {
+            return runOn(shard, call::get);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Set<String> shards() {
+        return targetRing.shards();
+    }
+
+    public Set<String> activeShards() {
+        return ring.shards();
+    }
+
+    public String primaryShard() {
+        return primaryShard;
+    }
+
+    public int overrideCount() {
+        return overrides.size();
+    }
+
+    // Blocks until no operation on the user is in flight and keeps new ones out while the move runs
+    void withUserExclusive(UUID userId, Runnable move) {
+        Lock lock = lockFor(userId).writeLock();
+        lock.lock();
+        try {
+            move.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Persisted before the old shard's copy is deleted, so a crash in between leaves stale rows, never lost ones
+    void reassign(UUID userId, String shard) {
+        if (shard.equals(targetRing.shardFor(userId))) {
+            directory.update("DELETE FROM user_shard_overrides WHERE u_id = ?", userId);
+            overrides.remove(userId);
+        } else {
+            directory.update(UPSERT_OVERRIDE_SQL, userId, shard);
+            overrides.put(userId, shard);
+        }
+    }
+
+    private static <T> T runOn(String shard, ShardCall<T> call) throws Throwable {
+        String previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return call.call();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    private ReentrantReadWriteLock lockFor(UUID userId) {
+        return locks[Math.floorMod(userId.hashCode(), locks.length)];
+    }
+
+    // Overrides the ring agrees with (e.g. left by an interrupted move) are no longer needed
+    private void loadOverrides(Set<String> knownShards) {
+        int redundant = 0;
+        for (Map<String, Object> row : directory.queryForList("SELECT u_id, shard FROM user_shard_overrides")) {
+            UUID userId = (UUID) row.get("u_id");
+            String shard = (String) row.get("shard");
+            if (!knownShards.contains(shard)) {
+                throw new IllegalStateException("User " + userId + " is assigned to unconfigured shard " + shard);
+            }
+            if (shard.equals(targetRing.shardFor(userId))) {
+                directory.update("DELETE FROM user_shard_overrides WHERE u_id = ? AND shard = ?", userId, shard);
+                redundant++;
+            } else {
+                overrides.put(userId, shard);
+            }
+        }
+
+        log.info("SHARD_ROUTER - LOAD_OVERRIDES ::: Active shards {}, joining {}, {} overrides loaded, {} redundant removed",
+                ring.shards(), targetRing.shards().stream().filter(s -> !ring.shards().contains(s)).toList(),
+                overrides.size(), redundant);
+    }
+
+    // Runs on every start while shards are joining. A user without an override whose position moved is either
+    // still on their old shard, or was created (or moved) after an earlier pass and is already on the new one;
+    // only the first kind is pinned. Users without any rows yet can go either way.
+    private void pinUnmovedUsers(ShardDataSources dataSources) {
+        if (ring.shards().equals(targetRing.shards())) {
+            return;
+        }
+
+        int pinned = 0;
+        UUID after = new UUID(0, 0);
+        List<UUID> page;
+        do {
+            page = directory.queryForList(SELECT_USERS_SQL, UUID.class, after, PIN_PAGE_SIZE);
+
+            Map<String, List<UUID>> movedByTarget = new HashMap<>();
+            for (UUID userId : page) {
+                if (!overrides.containsKey(userId) && !ring.shardFor(userId).equals(targetRing.shardFor(userId))) {
+                    movedByTarget.computeIfAbsent(targetRing.shardFor(userId), shard -> new ArrayList<>()).add(userId);
+                }
+            }
+
+            for (Map.Entry<String, List<UUID>> entry : movedByTarget.entrySet()) {
+                Set<UUID> onTarget = new HashSet<>(new NamedParameterJdbcTemplate(dataSources.primary(entry.getKey()))
+                        .queryForList(SELECT_USERS_WITH_ROWS_SQL, Map.of("userIds", entry.getValue()), UUID.class));
+                List<Object[]> pins = new ArrayList<>();
+                for (UUID userId : entry.getValue()) {
+                    if (!onTarget.contains(userId)) {
+                        pins.add(new Object[]{userId, ring.shardFor(userId)});
+                    }
+                }
+                directory.batchUpdate(INSERT_PIN_SQL, pins);
+                pins.forEach(pin -> overrides.put((UUID) pin[0], (String) pin[1]));
+                pinned += pins.size();
+            }
+
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == PIN_PAGE_SIZE);
+
+        log.info("SHARD_ROUTER - PIN_UNMOVED_USERS ::: Pinned {} users to their shard until the rebalancer moves them",
+                pinned);
+    }
+}
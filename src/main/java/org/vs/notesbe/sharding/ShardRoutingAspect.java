@@ -0,0 +1,34 @@
+package org.vs.notesbe.sharding;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+// Runs outside the transaction interceptor, so the shard is chosen before a transaction takes its connection
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ShardRoutingAspect {
+
+    private final ShardRouter shardRouter;
+
+    public ShardRoutingAspect(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    // The user id is read from the arguments: an args() binding is only made when the pointcut needs a runtime
+    // check, and the UUID in the signature makes it a static match
+    @Around("@within(org.vs.notesbe.sharding.ShardedByUser) && execution(public * *(java.util.UUID, ..))")
+    public Object routeToUserShard(ProceedingJoinPoint joinPoint) throws Throwable {
+        UUID userId = (UUID) joinPoint.getArgs()[0];
+        if (userId == null) {
+            return joinPoint.proceed();
+        }
+        return shardRouter.callForUser(userId, joinPoint::proceed);
+    }
+}
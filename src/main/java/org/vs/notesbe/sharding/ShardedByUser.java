@@ -0,0 +1,14 @@
+package org.vs.notesbe.sharding;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Public methods of the annotated bean whose first parameter is a UUID user id run against that user's shard
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ShardedByUser {
+}
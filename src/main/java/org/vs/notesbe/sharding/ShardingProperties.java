@@ -0,0 +1,24 @@
+package org.vs.notesbe.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+// The primary shard is spring.datasource; shards lists the additional databases. A joining shard gets a pool
+// and is a rebalancing target, but owns no users until the rebalance has run and the flag is cleared.
+@ConfigurationProperties(prefix = "notes.sharding")
+public record ShardingProperties(
+        @DefaultValue("shard-0") String primaryShard,
+        @DefaultValue("128") int virtualNodes,
+        List<Shard> shards
+) {
+
+    public ShardingProperties {
+        shards = shards == null ? List.of() : List.copyOf(shards);
+    }
+
+    // username/password default to the primary's
+    public record Shard(String name, String url, String username, String password, boolean joining) {
+    }
+}
@@ -0,0 +1,43 @@
+package org.vs.notesbe.sharding;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// /actuator/shards on the loopback-only management port: GET shows the topology and rebalance progress,
+// POST starts a rebalance onto the joining shards
+@Component
+@Endpoint(id = "shards")
+public class ShardsEndpoint {
+
+    private final ShardRouter shardRouter;
+    private final ShardRebalancer shardRebalancer;
+
+    public ShardsEndpoint(ShardRouter shardRouter, ShardRebalancer shardRebalancer) {
+        this.shardRouter = shardRouter;
+        this.shardRebalancer = shardRebalancer;
+    }
+
+    @ReadOperation
+    public Map<String, Object> shards() {
+        Map<String, Object> shards = new LinkedHashMap<>();
+        shards.put("primaryShard", shardRouter.primaryShard());
+        shards.put("activeShards", shardRouter.activeShards());
+        shards.put("shards", shardRouter.shards());
+        shards.put("overrides", shardRouter.overrideCount());
+        shards.put("rebalance", shardRebalancer.status());
+        return shards;
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebalance() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("started", shardRebalancer.start());
+        result.put("rebalance", shardRebalancer.status());
+        return result;
+    }
+}
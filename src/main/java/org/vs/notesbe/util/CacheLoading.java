@@ -0,0 +1,45 @@
+package org.vs.notesbe.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+public final class CacheLoading {
+
+    private CacheLoading() {
+    }
+
+    // Loads a missing entry on the calling thread, outside any map lock. A loader passed to Cache.get runs
+    // inside ConcurrentHashMap.compute, which on JDK 21 pins a virtual thread's carrier for the whole query.
+    // Concurrent callers for the same key still share one load: they wait on its future, which parks instead.
+    // Invalidating the key while it loads drops the future, so a value read before a write is never kept.
+    public static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Supplier<? extends V> loader) {
+        CompletableFuture<V> cached = cache.getIfPresent(key);
+        if (cached == null) {
+            CompletableFuture<V> loading = new CompletableFuture<>();
+            cached = cache.asMap().putIfAbsent(key, loading);
+            if (cached == null) {
+                try {
+                    V value = loader.get();
+                    loading.complete(value);
+                    return value;
+                } catch (RuntimeException | Error e) {
+                    // Caffeine removes the entry once its future fails
+                    loading.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.vs.notesbe.util;
+
+import org.vs.notesbe.dto.NotePageResponseDto;
+import org.vs.notesbe.dto.NoteResponseDto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+public final class ETagUtils {
+
+    private static final int ETAG_BYTES = 16;
+
+    private ETagUtils() {
+    }
+
+    // Tags are computed from the response actually served, never from a separate read: two read-only
+    // transactions may hit replicas at different lag, and a current tag on a stale body would be kept for good
+    public static String notePageETag(NotePageResponseDto page) {
+        List<NoteResponseDto> notes = page.getNotes();
+        Object[] parts = new Object[2 + notes.size() * 2];
+        parts[0] = page.getHasMore();
+        parts[1] = page.getNextCursor();
+        for (int i = 0; i < notes.size(); i++) {
+            parts[2 + i * 2] = notes.get(i).getNoteId();
+            parts[3 + i * 2] = notes.get(i).getVersion();
+        }
+        return weakETag(parts);
+    }
+
+    public static String noteETag(NoteResponseDto note) {
+        return weakETag(note.getNoteId(), note.getVersion());
+    }
+
+    // Weak ETag over the given version parts (ids, timestamps, paging parameters). Weak because one version is
+    // served in several encodings (JSON, CBOR, Smile, gzipped or not); Tomcat also never compresses a response
+    // that carries a strong ETag.
+    public static String weakETag(Object... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            byte[] hash = digest.digest();
+            return "W/\"" + HexFormat.of().formatHex(hash, 0, ETAG_BYTES) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
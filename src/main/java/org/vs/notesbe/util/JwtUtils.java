@@ -1,5 +1,6 @@
 package org.vs.notesbe.util;
 
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
@@ -16,6 +17,11 @@ public class JwtUtils {
 
     private final SecretKey secretKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
 
+    // Built once; the parser is immutable and thread-safe
+    private final JwtParser jwtParser = Jwts.parser()
+            .verifyWith(secretKey)
+            .build();
+
     public String generateToken(UUID userId) {
         return Jwts.builder()
                 .subject(userId.toString())
@@ -25,9 +31,7 @@ public class JwtUtils {
     }
 
     public String extractUserId(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload()
                 .getSubject();
@@ -35,10 +39,7 @@ public class JwtUtils {
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
+            jwtParser.parseSignedClaims(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -0,0 +1,80 @@
+package org.vs.notesbe.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Storage form of note bodies. Bodies up to COMPRESSION_THRESHOLD chars are stored as they are in notes.body.
+// Longer ones go to notes.body_compressed as a codec byte followed by the compressed UTF-8, and notes.body
+// keeps their first STORED_PREFIX_LENGTH chars, so list previews are still served without decompressing.
+public final class NoteBodyCodec {
+
+    public static final int COMPRESSION_THRESHOLD = 8 * 1024;
+    public static final int STORED_PREFIX_LENGTH = 1000;
+
+    private static final byte CODEC_DEFLATE = 1;
+    private static final int BUFFER_SIZE = 8192;
+
+    private NoteBodyCodec() {
+    }
+
+    public static boolean shouldCompress(String body) {
+        return body != null && body.length() > COMPRESSION_THRESHOLD;
+    }
+
+    public static String storedPrefix(String body) {
+        int end = Math.min(body.length(), STORED_PREFIX_LENGTH);
+        // Never cut a surrogate pair in half
+        if (end < body.length() && Character.isHighSurrogate(body.charAt(end - 1))) {
+            end--;
+        }
+        return body.substring(0, end);
+    }
+
+    public static byte[] compress(String body) {
+        byte[] input = body.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream output = new ByteArrayOutputStream(input.length / 4 + 16);
+        output.write(CODEC_DEFLATE);
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } finally {
+            deflater.end();
+        }
+        return output.toByteArray();
+    }
+
+    public static String decompress(byte[] stored) {
+        if (stored.length == 0 || stored[0] != CODEC_DEFLATE) {
+            throw new IllegalStateException("Unknown note body codec: " + (stored.length == 0 ? "empty" : stored[0]));
+        }
+
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(stored, 1, stored.length - 1);
+            ByteArrayOutputStream output = new ByteArrayOutputStream(stored.length * 4);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+                // The call that reaches the end of the stream may inflate nothing, e.g. after a full buffer
+                if (inflated == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated note body");
+                }
+                output.write(buffer, 0, inflated);
+            }
+            return output.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt note body", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.vs.notesbe.util;
+
+import org.vs.notesbe.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+public record NoteCursor(Instant updatedAt, UUID noteId) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = updatedAt + SEPARATOR + noteId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static NoteCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = raw.lastIndexOf(SEPARATOR);
+            if (idx <= 0) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            return new NoteCursor(Instant.parse(raw.substring(0, idx)), UUID.fromString(raw.substring(idx + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
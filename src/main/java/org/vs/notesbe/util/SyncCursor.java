@@ -0,0 +1,34 @@
+package org.vs.notesbe.util;
+
+import org.vs.notesbe.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+public record SyncCursor(long syncVersion, UUID noteId, long issuedAt) {
+
+    private static final UUID START_ID = new UUID(0L, 0L);
+    private static final String SEPARATOR = "|";
+
+    public static SyncCursor start() {
+        return new SyncCursor(0L, START_ID, System.currentTimeMillis());
+    }
+
+    public String encode() {
+        String raw = syncVersion + SEPARATOR + noteId + SEPARATOR + issuedAt;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SyncCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3) {
+                throw new InvalidCursorException("Invalid sync cursor");
+            }
+            return new SyncCursor(Long.parseLong(parts[0]), UUID.fromString(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid sync cursor");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.vs.notesbe.util;
+
+import org.vs.notesbe.dto.NoteTextEditDto;
+import org.vs.notesbe.exception.InvalidNotePatchException;
+
+import java.util.List;
+
+public final class TextPatch {
+
+    private TextPatch() {
+    }
+
+    // Edits are positioned against the original text and must be sorted and non-overlapping,
+    // so the result is built in one forward pass.
+    public static String apply(String text, List<NoteTextEditDto> edits) {
+        int growth = 0;
+        for (NoteTextEditDto edit : edits) {
+            growth += edit.getInsert() == null ? 0 : edit.getInsert().length();
+        }
+
+        StringBuilder sb = new StringBuilder(text.length() + growth);
+        int position = 0;
+        for (NoteTextEditDto edit : edits) {
+            int offset = edit.getOffset() == null ? -1 : edit.getOffset();
+            int deleteCount = edit.getDeleteCount() == null ? 0 : edit.getDeleteCount();
+            if (offset < position || deleteCount < 0 || offset > text.length() - deleteCount) {
+                throw new InvalidNotePatchException("Edit at offset " + offset + " is out of order or out of range");
+            }
+            sb.append(text, position, offset);
+            if (edit.getInsert() != null) {
+                sb.append(edit.getInsert());
+            }
+            position = offset + deleteCount;
+        }
+        return sb.append(text, position, text.length()).toString();
+    }
+}
@@ -5,29 +5,35 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.vs.notesbe.dto.ApiResponse;
 
+import java.util.UUID;
+
 @Component
 public class UserValidations {
 
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(UserValidations.class);
-    private final JwtUtils jwtUtils;
-
-    public UserValidations(JwtUtils jwtUtils) {
-        this.jwtUtils = jwtUtils;
-    }
 
-    public <T> ResponseEntity<ApiResponse<T>> validateUserToken(String token, String uIdString) {
-        if (!jwtUtils.validateToken(token)) {
+    // The token is verified once by JwtAuthenticationFilter; a null principal means it was missing or invalid
+    public <T> ResponseEntity<ApiResponse<T>> validateAuthenticatedUser(UUID authenticatedUserId) {
+        if (authenticatedUserId == null) {
             log.error("AUTH ::: Invalid JWT token");
             return ResponseEntity
                     .status(HttpStatus.UNAUTHORIZED)
                     .body(new ApiResponse<>(false, "Invalid JWT token", null));
         }
+        return null;
+    }
 
-        if (uIdString == null) {
-            log.error("AUTH ::: User ID not found in JWT token");
+    // Notes may only be read or changed by the user they belong to
+    public <T> ResponseEntity<ApiResponse<T>> validateAuthenticatedUser(UUID authenticatedUserId, UUID userId) {
+        ResponseEntity<ApiResponse<T>> validationResponse = validateAuthenticatedUser(authenticatedUserId);
+        if (validationResponse != null) {
+            return validationResponse;
+        }
+        if (!authenticatedUserId.equals(userId)) {
+            log.error("AUTH ::: User ID {} may not access notes of user ID: {}", authenticatedUserId, userId);
             return ResponseEntity
-                    .status(HttpStatus.UNAUTHORIZED)
-                    .body(new ApiResponse<>(false, "User not found.", null));
+                    .status(HttpStatus.FORBIDDEN)
+                    .body(new ApiResponse<>(false, "Access denied", null));
         }
         return null;
     }
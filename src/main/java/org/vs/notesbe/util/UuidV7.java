@@ -0,0 +1,39 @@
+package org.vs.notesbe.util;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+// RFC 9562 version 7: 48-bit unix millis followed by random bits, so ids sort by creation time
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private UuidV7() {
+    }
+
+    public static UUID generate() {
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+
+        long millis = System.currentTimeMillis();
+        bytes[0] = (byte) (millis >>> 40);
+        bytes[1] = (byte) (millis >>> 32);
+        bytes[2] = (byte) (millis >>> 24);
+        bytes[3] = (byte) (millis >>> 16);
+        bytes[4] = (byte) (millis >>> 8);
+        bytes[5] = (byte) millis;
+
+        bytes[6] = (byte) ((bytes[6] & 0x0f) | 0x70);
+        bytes[8] = (byte) ((bytes[8] & 0x3f) | 0x80);
+
+        long msb = 0;
+        long lsb = 0;
+        for (int i = 0; i < 8; i++) {
+            msb = (msb << 8) | (bytes[i] & 0xff);
+        }
+        for (int i = 8; i < 16; i++) {
+            lsb = (lsb << 8) | (bytes[i] & 0xff);
+        }
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,23 @@
+-- Convert created_at / updated_at from text to timestamptz on databases created while they were mapped as String.
+-- Fresh databases have no tables yet at this point; Hibernate creates them with the right types afterwards.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'notes' AND column_name = 'updated_at' AND data_type = 'character varying') THEN
+        ALTER TABLE notes
+            ALTER COLUMN created_at TYPE timestamptz USING created_at::timestamptz,
+            ALTER COLUMN updated_at TYPE timestamptz USING updated_at::timestamptz;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'users' AND column_name = 'updated_at' AND data_type = 'character varying') THEN
+        ALTER TABLE users
+            ALTER COLUMN created_at TYPE timestamptz USING created_at::timestamptz,
+            ALTER COLUMN updated_at TYPE timestamptz USING updated_at::timestamptz;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'notes') THEN
+        CREATE INDEX IF NOT EXISTS idx_notes_user_updated_note ON notes (u_id, updated_at DESC, n_id DESC);
+        CREATE INDEX IF NOT EXISTS idx_notes_user_created_note ON notes (u_id, created_at DESC, n_id DESC);
+    END IF;
+END $$;
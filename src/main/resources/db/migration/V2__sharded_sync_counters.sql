@@ -0,0 +1,18 @@
+-- Sync versions moved from users.sync_version to note_sync_counters, which db/shard/V1 has already created
+-- on this (the primary) shard. Carry the existing counters over so cursors held by clients stay valid.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'users' AND column_name = 'sync_version') THEN
+        INSERT INTO note_sync_counters (u_id, sync_version)
+        SELECT u_id, sync_version FROM users WHERE sync_version > 0
+        ON CONFLICT (u_id) DO NOTHING;
+        ALTER TABLE users DROP COLUMN sync_version;
+    END IF;
+END $$;
+
+-- Users the rebalancer placed somewhere other than their ring position; loaded by ShardRouter at startup
+CREATE TABLE IF NOT EXISTS user_shard_overrides (
+    u_id  uuid         NOT NULL PRIMARY KEY,
+    shard varchar(255) NOT NULL
+);
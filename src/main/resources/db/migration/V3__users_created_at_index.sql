@@ -0,0 +1,8 @@
+-- Lets each node pick up users registered on other nodes (UserAvailabilityService.refresh) without a full scan.
+-- Fresh databases get the index from the User mapping once Hibernate creates the table.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'users') THEN
+        CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at);
+    END IF;
+END $$;
@@ -0,0 +1,44 @@
+-- Signup relies on uk_users_user_name and uk_users_email to reject concurrent duplicates (UserService.signup).
+-- Databases created by ddl-auto have an unnamed unique constraint on email only; it is renamed rather than
+-- duplicated. Existing duplicate user names stop the upgrade: they have to be resolved by hand first.
+-- Fresh databases get both constraints from the User mapping once Hibernate creates the table.
+DO $$
+DECLARE
+    email_attnum smallint;
+    duplicates   text;
+    existing     record;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.tables WHERE table_name = 'users') THEN
+        RETURN;
+    END IF;
+
+    SELECT string_agg(user_name, ', ') INTO duplicates
+    FROM (SELECT user_name FROM users GROUP BY user_name HAVING count(*) > 1 ORDER BY user_name LIMIT 20) d;
+    IF duplicates IS NOT NULL THEN
+        RAISE EXCEPTION 'users.user_name is not unique (%); rename the duplicates before upgrading', duplicates;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = 'users'::regclass AND conname = 'uk_users_user_name') THEN
+        ALTER TABLE users ADD CONSTRAINT uk_users_user_name UNIQUE (user_name);
+    END IF;
+
+    SELECT attnum INTO email_attnum FROM pg_attribute WHERE attrelid = 'users'::regclass AND attname = 'email';
+    FOR existing IN
+        SELECT conname FROM pg_constraint
+        WHERE conrelid = 'users'::regclass AND contype = 'u' AND conkey = ARRAY[email_attnum]
+          AND conname <> 'uk_users_email'
+    LOOP
+        IF EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = 'users'::regclass AND conname = 'uk_users_email') THEN
+            EXECUTE format('ALTER TABLE users DROP CONSTRAINT %I', existing.conname);
+        ELSE
+            EXECUTE format('ALTER TABLE users RENAME CONSTRAINT %I TO uk_users_email', existing.conname);
+        END IF;
+    END LOOP;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = 'users'::regclass AND conname = 'uk_users_email') THEN
+        ALTER TABLE users ADD CONSTRAINT uk_users_email UNIQUE (email);
+    END IF;
+END $$;
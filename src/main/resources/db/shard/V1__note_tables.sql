@@ -0,0 +1,34 @@
+-- Per-user note data; every shard has these tables and a user's rows all live on one shard.
+-- Matches the Note and NoteTombstone mappings; existing tables on the primary shard are left as they are.
+CREATE TABLE IF NOT EXISTS notes (
+    n_id         uuid                        NOT NULL PRIMARY KEY,
+    u_id         uuid                        NOT NULL,
+    title        varchar(255)                NOT NULL,
+    body         varchar(255)                NOT NULL,
+    created_at   timestamp(6) with time zone NOT NULL,
+    updated_at   timestamp(6) with time zone NOT NULL,
+    sync_version bigint DEFAULT 0            NOT NULL,
+    version      bigint DEFAULT 0            NOT NULL
+);
+-- Tables created by ddl-auto before sync versions and optimistic locking have neither column yet
+ALTER TABLE notes ADD COLUMN IF NOT EXISTS sync_version bigint DEFAULT 0 NOT NULL;
+ALTER TABLE notes ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0 NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_notes_user_updated_note ON notes (u_id, updated_at DESC, n_id DESC);
+CREATE INDEX IF NOT EXISTS idx_notes_user_created_note ON notes (u_id, created_at DESC, n_id DESC);
+CREATE INDEX IF NOT EXISTS idx_notes_user_sync_version ON notes (u_id, sync_version, n_id);
+
+CREATE TABLE IF NOT EXISTS note_tombstones (
+    n_id         uuid                        NOT NULL PRIMARY KEY,
+    u_id         uuid                        NOT NULL,
+    sync_version bigint                      NOT NULL,
+    deleted_at   timestamp(6) with time zone NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_note_tombstones_user_sync_version ON note_tombstones (u_id, sync_version, n_id);
+CREATE INDEX IF NOT EXISTS idx_note_tombstones_deleted_at ON note_tombstones (deleted_at);
+
+-- Bumped by every note write of the user; the row lock keeps sync versions in commit order.
+-- Kept next to the notes so the bump and the write commit together.
+CREATE TABLE IF NOT EXISTS note_sync_counters (
+    u_id         uuid   NOT NULL PRIMARY KEY,
+    sync_version bigint NOT NULL
+);
@@ -0,0 +1,5 @@
+-- Note bodies: text instead of varchar(255), plus a column for compressed large bodies (see NoteBodyCodec).
+-- Both are catalog-only changes in PostgreSQL, without a table rewrite. Existing large bodies are
+-- compressed afterwards by NoteBodyMigrationService, a few rows at a time.
+ALTER TABLE notes ALTER COLUMN body TYPE text;
+ALTER TABLE notes ADD COLUMN IF NOT EXISTS body_compressed bytea;
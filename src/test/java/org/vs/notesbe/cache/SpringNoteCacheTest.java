@@ -0,0 +1,77 @@
+package org.vs.notesbe.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.vs.notesbe.dto.NotePageResponseDto;
+import org.vs.notesbe.dto.NoteResponseDto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpringNoteCacheTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final SpringNoteCache noteCache = new SpringNoteCache(serializingCacheManager());
+
+    @Test
+    void cachesNotesThroughSerialization() {
+        NoteResponseDto note = note();
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<NoteResponseDto> loader = () -> {
+            loads.incrementAndGet();
+            return note;
+        };
+
+        noteCache.getNote(userId, note.getNoteId(), loader);
+        NoteResponseDto cached = noteCache.getNote(userId, note.getNoteId(), loader);
+
+        assertThat(loads).hasValue(1);
+        assertThat(cached).isEqualTo(note).isNotSameAs(note);
+    }
+
+    @Test
+    void cachesPagesUntilInvalidated() {
+        NotePageResponseDto page = new NotePageResponseDto();
+        page.setNotes(List.of(note(), note()));
+        page.setNextCursor("cursor");
+        page.setHasMore(true);
+        AtomicInteger loads = new AtomicInteger();
+
+        Supplier<NotePageResponseDto> loader = () -> {
+            loads.incrementAndGet();
+            return page;
+        };
+
+        noteCache.getNotePage(userId, null, 20, loader);
+        assertThat(noteCache.getNotePage(userId, null, 20, loader)).isEqualTo(page);
+        assertThat(loads).hasValue(1);
+
+        noteCache.invalidate(userId, List.of());
+        noteCache.getNotePage(userId, null, 20, loader);
+        assertThat(loads).hasValue(2);
+    }
+
+    // Stores copies made with JDK serialization, like Redis' default serializer
+    private static ConcurrentMapCacheManager serializingCacheManager() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+                SpringNoteCache.NOTES_CACHE, SpringNoteCache.NOTE_PAGES_CACHE, SpringNoteCache.GENERATIONS_CACHE);
+        cacheManager.setBeanClassLoader(SpringNoteCacheTest.class.getClassLoader());
+        cacheManager.setStoreByValue(true);
+        return cacheManager;
+    }
+
+    private NoteResponseDto note() {
+        NoteResponseDto note = new NoteResponseDto();
+        note.setNoteId(UUID.randomUUID());
+        note.setTitle("Title");
+        note.setBody("Body");
+        note.setUpdatedAt(Instant.now());
+        note.setVersion(1L);
+        return note;
+    }
+}
@@ -0,0 +1,37 @@
+package org.vs.notesbe.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.vs.notesbe.cache.CaffeineNoteCache;
+import org.vs.notesbe.cache.NoteCache;
+import org.vs.notesbe.cache.SpringNoteCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NoteCacheConfigTest {
+
+    // Boot's conversion service, which binds the Duration values of @Value parameters
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withConfiguration(AutoConfigurations.of(CacheAutoConfiguration.class))
+            .withUserConfiguration(NoteCacheConfig.class);
+
+    @Test
+    void localCacheIsTheDefault() {
+        contextRunner.run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context.getBean(NoteCache.class)).isInstanceOf(CaffeineNoteCache.class);
+        });
+    }
+
+    @Test
+    void sharedCacheStartsWithTheAutoConfiguredCacheManager() {
+        contextRunner.withPropertyValues("notes.cache.type=shared").run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context.getBean(NoteCache.class)).isInstanceOf(SpringNoteCache.class);
+        });
+    }
+}
@@ -0,0 +1,76 @@
+package org.vs.notesbe.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseBufferingFilterTest {
+
+    private final ResponseBufferingFilter filter = new ResponseBufferingFilter(DataSize.ofBytes(100));
+
+    @Test
+    void smallResponsesAreSentWithAContentLength() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("/api/v1/notes/getNotes"), response, writing("x".repeat(60)));
+
+        assertThat(response.getContentLength()).isEqualTo(60);
+        assertThat(response.getContentAsString()).isEqualTo("x".repeat(60));
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getHeader("Vary")).isEqualTo("Accept");
+    }
+
+    @Test
+    void largeResponsesStreamWithoutAContentLength() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String body = "0123456789".repeat(50);
+
+        filter.doFilter(request("/api/v1/notes/getNotes"), response, (request, servletResponse) -> {
+            // Written in pieces: the first ones are held back until the threshold is passed
+            for (int i = 0; i < 50; i++) {
+                servletResponse.getOutputStream().write("0123456789".getBytes(StandardCharsets.UTF_8));
+            }
+            assertThat(response.getContentAsByteArray()).hasSizeGreaterThan(400);
+        });
+
+        assertThat(response.getContentLength()).isZero();
+        assertThat(response.getHeader("Content-Length")).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(body);
+    }
+
+    @Test
+    void writerOutputIsBufferedToo() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setCharacterEncoding("UTF-8");
+
+        filter.doFilter(request("/api/v1/users/signin"), response,
+                (request, servletResponse) -> servletResponse.getWriter().write("{\"ok\":\"é\"}"));
+
+        assertThat(response.getContentLength()).isEqualTo(11);
+        assertThat(response.getContentAsString()).isEqualTo("{\"ok\":\"é\"}");
+    }
+
+    @Test
+    void streamingEndpointsAreNotWrapped() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("/api/v1/notes/exportNotes"), response, writing("x".repeat(10)));
+
+        assertThat(response.getHeader("Content-Length")).isNull();
+        assertThat(response.getHeader("Vary")).isNull();
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+
+    private static FilterChain writing(String body) {
+        return (request, response) -> response.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
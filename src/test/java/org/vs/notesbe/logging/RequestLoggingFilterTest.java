@@ -0,0 +1,83 @@
+package org.vs.notesbe.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestLoggingFilterTest {
+
+    private final RequestLoggingFilter filter = new RequestLoggingFilter(new LogSamplingProperties(1.0, Map.of()));
+    private final Logger filterLogger = (Logger) LoggerFactory.getLogger(RequestLoggingFilter.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void captureLogs() {
+        appender.start();
+        filterLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void releaseLogs() {
+        filterLogger.detachAppender(appender);
+    }
+
+    @Test
+    void asyncRequestsAreLoggedWhenTheyComplete() throws Exception {
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<String> requestIds = new ArrayList<>();
+
+        filter.doFilter(request, response, (req, res) -> {
+            requestIds.add(MDC.get(RequestLoggingFilter.REQUEST_ID_MDC));
+            req.startAsync();
+        });
+        assertThat(appender.list).isEmpty();
+        assertThat(MDC.get(RequestLoggingFilter.REQUEST_ID_MDC)).isNull();
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(request, response, (req, res) -> {
+            requestIds.add(MDC.get(RequestLoggingFilter.REQUEST_ID_MDC));
+            ((MockHttpServletResponse) res).setStatus(500);
+        });
+        assertThat(appender.list).isEmpty();
+
+        request.getAsyncContext().complete();
+
+        assertThat(requestIds).containsExactly("req-1", "req-1");
+        assertThat(appender.list).singleElement().satisfies(event -> {
+            assertThat(event.getFormattedMessage()).startsWith("REQUEST ::: GET /api/v1/notes/exportNotes -> 500 in ");
+            assertThat(event.getMDCPropertyMap()).containsEntry(RequestLoggingFilter.REQUEST_ID_MDC, "req-1");
+        });
+        assertThat(MDC.get(RequestLoggingFilter.REQUEST_ID_MDC)).isNull();
+    }
+
+    @Test
+    void synchronousRequestsAreLoggedRightAway() throws Exception {
+        filter.doFilter(request(), new MockHttpServletResponse(), (req, res) -> {
+        });
+
+        assertThat(appender.list).singleElement()
+                .satisfies(event -> assertThat(event.getFormattedMessage()).contains("-> 200"));
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/notes/exportNotes");
+        request.setAsyncSupported(true);
+        request.addHeader(RequestLoggingFilter.REQUEST_ID_HEADER, "req-1");
+        return request;
+    }
+}
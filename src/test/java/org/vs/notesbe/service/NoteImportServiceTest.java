@@ -0,0 +1,81 @@
+package org.vs.notesbe.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vs.notesbe.cache.NoteCache;
+import org.vs.notesbe.datasource.ReadYourWritesTracker;
+import org.vs.notesbe.dto.NoteImportChunkDto;
+import org.vs.notesbe.dto.NoteImportResponseDto;
+import org.vs.notesbe.events.NoteEventBus;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class NoteImportServiceTest {
+
+    private static final String NOTE = "{\"title\":\"Title\",\"body\":\"Body\"}";
+
+    private final UUID userId = UUID.randomUUID();
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final NoteImportService noteImportService = new NoteImportService(
+            mock(JdbcTemplate.class),
+            transactionTemplate,
+            new ObjectMapper(),
+            mock(NoteSearchService.class),
+            mock(NoteCache.class),
+            mock(NoteSyncService.class),
+            mock(ReadYourWritesTracker.class),
+            mock(NoteEventBus.class),
+            2
+    );
+
+    @Test
+    void countsNonObjectElementsAsFailed() throws IOException {
+        NoteImportResponseDto result = importNotes("[" + NOTE + ", null, 42, [1, 2], " + NOTE + "]");
+
+        assertThat(result.getTotalReceived()).isEqualTo(5);
+        assertThat(result.getTotalImported()).isEqualTo(2);
+        assertThat(result.getTotalFailed()).isEqualTo(3);
+    }
+
+    @Test
+    void invalidJsonKeepsTheReportOfCommittedChunks() throws IOException {
+        NoteImportResponseDto result = importNotes("[" + NOTE + ", " + NOTE + ", " + NOTE + ", {\"title\": ");
+
+        assertThat(result.getTotalImported()).isEqualTo(3);
+        assertThat(result.getTotalFailed()).isEqualTo(1);
+        assertThat(result.getChunks()).hasSize(3);
+        NoteImportChunkDto last = result.getChunks().get(2);
+        assertThat(last.getImported()).isZero();
+        assertThat(last.getError()).startsWith("Invalid JSON at line 1");
+        // The full chunk, then the note read before the error
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
+    }
+
+    @Test
+    void databaseErrorsAreNotPassedToTheClient() throws IOException {
+        doThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint \"notes_pkey\""))
+                .when(transactionTemplate).executeWithoutResult(any());
+
+        NoteImportResponseDto result = importNotes("[" + NOTE + "]");
+
+        assertThat(result.getTotalFailed()).isEqualTo(1);
+        assertThat(result.getChunks().get(0).getError()).isEqualTo("Notes could not be saved");
+    }
+
+    private NoteImportResponseDto importNotes(String json) throws IOException {
+        return noteImportService.importNotes(userId, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,66 @@
+package org.vs.notesbe.service;
+
+import org.junit.jupiter.api.Test;
+import org.vs.notesbe.dto.NoteSearchResultDto;
+import org.vs.notesbe.model.Note;
+import org.vs.notesbe.repository.NoteRepo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NoteSearchServiceTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final NoteRepo noteRepo = mock(NoteRepo.class);
+    private final NoteSearchService noteSearchService = new NoteSearchService(noteRepo, 1 << 20, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    @Test
+    void highlightsMatchesAndEscapesNoteText() {
+        givenNotes(note("<b>Groceries</b>", "buy milk & <script>alert(1)</script> bread"));
+
+        List<NoteSearchResultDto> results = noteSearchService.search(userId, "milk", 10);
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getTitle()).isEqualTo("&lt;b&gt;Groceries&lt;/b&gt;");
+        assertThat(results.get(0).getSnippet())
+                .isEqualTo("buy <mark>milk</mark> &amp; &lt;script&gt;alert(1)&lt;/script&gt; bread");
+    }
+
+    @Test
+    void everyTermMustMatchAsAPrefix() {
+        givenNotes(note("Trip", "packing list for the mountains"), note("Work", "packing boxes for the office"));
+
+        List<NoteSearchResultDto> results = noteSearchService.search(userId, "pack mount", 10);
+
+        assertThat(results).extracting(NoteSearchResultDto::getTitle).containsExactly("Trip");
+    }
+
+    @Test
+    void rebuildsIndexesOlderThanMaxStaleness() throws InterruptedException {
+        NoteSearchService service = new NoteSearchService(noteRepo, 1 << 20, Duration.ofMinutes(1), Duration.ofMillis(50));
+        givenNotes(note("Trip", "packing list"));
+        assertThat(service.search(userId, "packing", 10)).hasSize(1);
+
+        // Written behind the service, e.g. by another node
+        givenNotes(note("Trip", "packing list"), note("Move", "packing boxes"));
+        assertThat(service.search(userId, "packing", 10)).hasSize(1);
+
+        Thread.sleep(100);
+        assertThat(service.search(userId, "packing", 10)).hasSize(2);
+    }
+
+    private void givenNotes(Note... notes) {
+        when(noteRepo.findAllByUserId(userId)).thenReturn(List.of(notes));
+    }
+
+    private Note note(String title, String body) {
+        Instant now = Instant.now();
+        return new Note(UUID.randomUUID(), userId, title, body, null, now, now, 1L, 0L);
+    }
+}
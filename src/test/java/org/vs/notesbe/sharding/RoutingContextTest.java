@@ -0,0 +1,50 @@
+package org.vs.notesbe.sharding;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.vs.notesbe.datasource.ReplicaDataSource;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoutingContextTest {
+
+    @AfterEach
+    void clearThread() {
+        ShardContext.set(null);
+        ReplicaDataSource.unpin();
+    }
+
+    @Test
+    void carriesTheRequestRoutingToAnotherThread() {
+        ShardContext.set("shard-1");
+        ReplicaDataSource.pinToPrimary();
+        RoutingContext routingContext = RoutingContext.capture();
+
+        String[] seen = CompletableFuture.supplyAsync(() -> {
+            String[] inside = routingContext.call(() ->
+                    new String[]{ShardContext.current(), String.valueOf(ReplicaDataSource.isPinnedToPrimary())});
+            assertThat(ShardContext.current()).isNull();
+            assertThat(ReplicaDataSource.isPinnedToPrimary()).isFalse();
+            return inside;
+        }).join();
+
+        assertThat(seen).containsExactly("shard-1", "true");
+    }
+
+    @Test
+    void restoresTheRoutingOfTheCallingThread() {
+        RoutingContext unpinned = new RoutingContext(null, false);
+        ShardContext.set("shard-0");
+        ReplicaDataSource.pinToPrimary();
+
+        unpinned.call(() -> {
+            assertThat(ShardContext.current()).isNull();
+            return null;
+        });
+
+        assertThat(ShardContext.current()).isEqualTo("shard-0");
+        assertThat(ReplicaDataSource.isPinnedToPrimary()).isTrue();
+    }
+}
@@ -0,0 +1,84 @@
+package org.vs.notesbe.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardRingTest {
+
+    private static final List<String> SHARDS = List.of("shard-0", "shard-1", "shard-2");
+
+    // Fixed expectations: a release or JVM that places these users differently strands their notes
+    @Test
+    void placementIsStableAcrossReleases() {
+        ShardRing ring = new ShardRing(SHARDS, 128);
+
+        assertThat(ring.shardFor(UUID.fromString("0190a3c4-5e6f-7a8b-9c0d-1e2f3a4b5c6d"))).isEqualTo("shard-0");
+        assertThat(ring.shardFor(UUID.fromString("7f3e2d1c-0b9a-4876-a543-210fedcba987"))).isEqualTo("shard-1");
+        assertThat(ring.shardFor(UUID.fromString("16fd2706-8baf-433b-82eb-8c7fada847da"))).isEqualTo("shard-1");
+        assertThat(ring.shardFor(UUID.fromString("6ecd8c99-4036-403d-bf84-cf8400f67836"))).isEqualTo("shard-2");
+        assertThat(ring.shardFor(UUID.fromString("a8098c1a-f86e-11da-bd1a-00112444be1e"))).isEqualTo("shard-2");
+    }
+
+    @Test
+    void placementDoesNotDependOnShardOrder() {
+        ShardRing ring = new ShardRing(SHARDS, 128);
+        ShardRing reordered = new ShardRing(List.of("shard-2", "shard-0", "shard-1"), 128);
+
+        for (UUID userId : users(10_000)) {
+            assertThat(reordered.shardFor(userId)).isEqualTo(ring.shardFor(userId));
+        }
+    }
+
+    @Test
+    void usersAreSpreadOverAllShards() {
+        ShardRing ring = new ShardRing(SHARDS, 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (UUID userId : users(30_000)) {
+            counts.merge(ring.shardFor(userId), 1, Integer::sum);
+        }
+
+        assertThat(counts).containsOnlyKeys(SHARDS);
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(7_000, 13_000));
+    }
+
+    @Test
+    void addingAShardOnlyMovesUsersOntoIt() {
+        ShardRing before = new ShardRing(SHARDS, 128);
+        ShardRing after = new ShardRing(List.of("shard-0", "shard-1", "shard-2", "shard-3"), 128);
+
+        List<UUID> users = users(20_000);
+        int moved = 0;
+        for (UUID userId : users) {
+            if (!before.shardFor(userId).equals(after.shardFor(userId))) {
+                assertThat(after.shardFor(userId)).isEqualTo("shard-3");
+                moved++;
+            }
+        }
+
+        // About a quarter of the users belong on the new shard, and nobody else moves
+        assertThat(moved).isBetween(users.size() / 6, users.size() / 3);
+    }
+
+    @Test
+    void rejectsAnEmptyRing() {
+        assertThatThrownBy(() -> new ShardRing(List.of(), 128)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ShardRing(SHARDS, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<UUID> users(int count) {
+        Random random = new Random(42);
+        return Stream.generate(() -> new UUID(random.nextLong(), random.nextLong()))
+                .limit(count)
+                .toList();
+    }
+}
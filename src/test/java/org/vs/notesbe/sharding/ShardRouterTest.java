@@ -0,0 +1,173 @@
+package org.vs.notesbe.sharding;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// shard-0 is the primary and the only active shard, shard-1 has just joined
+class ShardRouterTest {
+
+    private static final int VIRTUAL_NODES = 128;
+
+    private final ShardRing newRing = new ShardRing(List.of("shard-0", "shard-1"), VIRTUAL_NODES);
+    private final ShardingProperties properties = new ShardingProperties("shard-0", VIRTUAL_NODES, List.of());
+
+    private JdbcTemplate shard0;
+    private JdbcTemplate shard1;
+    private ShardDataSources dataSources;
+
+    @BeforeEach
+    void createShards() {
+        String run = UUID.randomUUID().toString();
+        DataSource primary = shard(run + "-0");
+        DataSource joining = shard(run + "-1");
+        shard0 = new JdbcTemplate(primary);
+        shard1 = new JdbcTemplate(joining);
+        shard0.execute("CREATE TABLE users (u_id uuid PRIMARY KEY)");
+        shard0.execute("CREATE TABLE user_shard_overrides (u_id uuid PRIMARY KEY, shard varchar(255) NOT NULL)");
+        dataSources = new ShardDataSources("shard-0", Map.of("shard-0", primary, "shard-1", joining), Set.of("shard-1"));
+    }
+
+    @Test
+    void existingUsersWhoseShardMovedArePinnedToTheirOldShard() {
+        UUID staying = user(id -> newRing.shardFor(id).equals("shard-0"));
+        UUID moving = user(id -> newRing.shardFor(id).equals("shard-1"));
+        insertNote(shard0, staying);
+        insertNote(shard0, moving);
+
+        ShardRouter router = new ShardRouter(properties, dataSources);
+
+        assertThat(router.shardFor(staying)).isEqualTo("shard-0");
+        assertThat(router.shardFor(moving)).isEqualTo("shard-0");
+        assertThat(router.targetShardFor(moving)).isEqualTo("shard-1");
+        assertThat(shard0.queryForObject("SELECT shard FROM user_shard_overrides WHERE u_id = ?", String.class, moving))
+                .isEqualTo("shard-0");
+    }
+
+    @Test
+    void usersAlreadyOnTheirNewShardAreNotPinned() {
+        // Created while the shard was joining, or moved by an earlier rebalance
+        UUID placed = user(id -> newRing.shardFor(id).equals("shard-1"));
+        insertNote(shard1, placed);
+
+        ShardRouter router = new ShardRouter(properties, dataSources);
+
+        assertThat(router.shardFor(placed)).isEqualTo("shard-1");
+        assertThat(router.overrideCount()).isZero();
+    }
+
+    @Test
+    void newUsersGoStraightToTheirFinalShard() {
+        ShardRouter router = new ShardRouter(properties, dataSources);
+
+        UUID created = Stream.generate(UUID::randomUUID)
+                .filter(id -> newRing.shardFor(id).equals("shard-1"))
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(router.shardFor(created)).isEqualTo("shard-1");
+        assertThat(router.userExists(created)).isFalse();
+    }
+
+    @Test
+    void overridesTheRingAgreesWithAreDropped() {
+        UUID userId = user(id -> newRing.shardFor(id).equals("shard-1"));
+        shard0.update("INSERT INTO user_shard_overrides (u_id, shard) VALUES (?, ?)", userId, "shard-1");
+        insertNote(shard1, userId);
+
+        ShardRouter router = new ShardRouter(properties, dataSources);
+
+        assertThat(router.overrideCount()).isZero();
+        assertThat(shard0.queryForObject("SELECT count(*) FROM user_shard_overrides", Integer.class)).isZero();
+    }
+
+    @Test
+    void rebalancerMovesPinnedUsersAndDropsTheirPins() throws InterruptedException {
+        UUID moving = user(id -> newRing.shardFor(id).equals("shard-1"));
+        UUID staying = user(id -> newRing.shardFor(id).equals("shard-0"));
+        UUID noteId = insertNote(shard0, moving);
+        insertNote(shard0, staying);
+        shard0.update("INSERT INTO note_tombstones (n_id, u_id, sync_version, deleted_at) VALUES (?, ?, ?, ?)",
+                UUID.randomUUID(), moving, 2L, OffsetDateTime.now());
+        shard0.update("INSERT INTO note_sync_counters (u_id, sync_version) VALUES (?, ?)", moving, 2L);
+
+        ShardRouter router = new ShardRouter(properties, dataSources);
+        ShardRebalancer rebalancer = new ShardRebalancer(router, dataSources);
+        assertThat(rebalancer.start()).isTrue();
+        awaitDone(rebalancer);
+
+        assertThat(rebalancer.status()).containsEntry("usersMoved", 1L).containsEntry("notesMoved", 1L);
+        assertThat(router.shardFor(moving)).isEqualTo("shard-1");
+        assertThat(router.overrideCount()).isZero();
+        assertThat(shard1.queryForList("SELECT n_id FROM notes WHERE u_id = ?", UUID.class, moving)).containsExactly(noteId);
+        assertThat(shard1.queryForObject("SELECT count(*) FROM note_tombstones WHERE u_id = ?", Integer.class, moving)).isEqualTo(1);
+        assertThat(shard1.queryForObject("SELECT sync_version FROM note_sync_counters WHERE u_id = ?", Long.class, moving)).isEqualTo(2L);
+        assertThat(shard0.queryForObject("SELECT count(*) FROM notes WHERE u_id = ?", Integer.class, moving)).isZero();
+        assertThat(shard0.queryForObject("SELECT count(*) FROM notes WHERE u_id = ?", Integer.class, staying)).isEqualTo(1);
+    }
+
+    private static DataSource shard(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE notes (
+                    n_id uuid PRIMARY KEY, u_id uuid NOT NULL, title varchar(255), body text, body_compressed bytea,
+                    created_at timestamp with time zone, updated_at timestamp with time zone,
+                    sync_version bigint NOT NULL, version bigint NOT NULL
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE note_tombstones (
+                    n_id uuid PRIMARY KEY, u_id uuid NOT NULL, sync_version bigint NOT NULL, deleted_at timestamp with time zone
+                )
+                """);
+        jdbcTemplate.execute("CREATE TABLE note_sync_counters (u_id uuid PRIMARY KEY, sync_version bigint NOT NULL)");
+        return dataSource;
+    }
+
+    // Registers an existing user, all of whom started out on shard-0
+    private UUID user(Predicate<UUID> placement) {
+        Random random = new Random();
+        UUID userId = Stream.generate(() -> new UUID(random.nextLong(), random.nextLong()))
+                .filter(placement)
+                .findFirst()
+                .orElseThrow();
+        shard0.update("INSERT INTO users (u_id) VALUES (?)", userId);
+        return userId;
+    }
+
+    private static UUID insertNote(JdbcTemplate shard, UUID userId) {
+        UUID noteId = UUID.randomUUID();
+        OffsetDateTime now = OffsetDateTime.now();
+        shard.update("""
+                INSERT INTO notes (n_id, u_id, title, body, body_compressed, created_at, updated_at, sync_version, version)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, noteId, userId, "Title", "Body", null, now, now, 1L, 0L);
+        return noteId;
+    }
+
+    private static void awaitDone(ShardRebalancer rebalancer) throws InterruptedException {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(10));
+        while (Boolean.TRUE.equals(rebalancer.status().get("running"))) {
+            assertThat(Instant.now()).isBefore(deadline);
+            Thread.sleep(10);
+        }
+        assertThat(rebalancer.status()).containsEntry("error", null);
+    }
+}
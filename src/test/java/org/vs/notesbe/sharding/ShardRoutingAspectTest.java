@@ -0,0 +1,48 @@
+package org.vs.notesbe.sharding;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ShardRoutingAspectTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final ShardRouter shardRouter = mock(ShardRouter.class);
+
+    @Test
+    void runsUserMethodsOnTheUserShard() throws Throwable {
+        when(shardRouter.callForUser(eq(userId), any())).thenAnswer(invocation -> {
+            ShardContext.set("shard-1");
+            try {
+                return invocation.<ShardRouter.ShardCall<?>>getArgument(1).call();
+            } finally {
+                ShardContext.set(null);
+            }
+        });
+
+        assertThat(proxy().shardOf(userId, "note")).isEqualTo("shard-1");
+        assertThat(proxy().shardOf(null, "note")).isNull();
+    }
+
+    private UserNotes proxy() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new UserNotes());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new ShardRoutingAspect(shardRouter));
+        return proxyFactory.getProxy();
+    }
+
+    @ShardedByUser
+    static class UserNotes {
+
+        public String shardOf(UUID userId, String note) {
+            return ShardContext.current();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.vs.notesbe.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void neverMissesAnAddedValue() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        List<String> values = IntStream.range(0, 10_000).mapToObj(i -> "user" + i + "@example.com").toList();
+
+        values.forEach(filter::put);
+
+        assertThat(values).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheTargetRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i));
+
+        long falsePositives = IntStream.range(0, 100_000).filter(i -> filter.mightContain("other" + i)).count();
+
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(0, 0.01);
+
+        assertThat(filter.mightContain("")).isFalse();
+        assertThat(filter.mightContain("alice")).isFalse();
+    }
+
+    @Test
+    void concurrentPutsAreNotLost() {
+        BloomFilter filter = new BloomFilter(50_000, 0.01);
+
+        IntStream.range(0, 50_000).parallel().forEach(i -> filter.put("name" + i));
+
+        assertThat(IntStream.range(0, 50_000)).allMatch(i -> filter.mightContain("name" + i));
+    }
+}
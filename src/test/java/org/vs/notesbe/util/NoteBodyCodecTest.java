@@ -0,0 +1,78 @@
+package org.vs.notesbe.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NoteBodyCodecTest {
+
+    @Test
+    void onlyBodiesOverTheThresholdAreCompressed() {
+        assertThat(NoteBodyCodec.shouldCompress(null)).isFalse();
+        assertThat(NoteBodyCodec.shouldCompress("a".repeat(NoteBodyCodec.COMPRESSION_THRESHOLD))).isFalse();
+        assertThat(NoteBodyCodec.shouldCompress("a".repeat(NoteBodyCodec.COMPRESSION_THRESHOLD + 1))).isTrue();
+    }
+
+    @Test
+    void roundTripsNonAsciiText() {
+        String body = "Grüße, 日本語 and emoji 😀\n".repeat(2_000);
+
+        byte[] stored = NoteBodyCodec.compress(body);
+
+        assertThat(stored.length).isLessThan(body.length());
+        assertThat(NoteBodyCodec.decompress(stored)).isEqualTo(body);
+    }
+
+    @Test
+    void roundTripsAnEmptyBody() {
+        assertThat(NoteBodyCodec.decompress(NoteBodyCodec.compress(""))).isEmpty();
+    }
+
+    @Test
+    void roundTripsBodiesFillingWholeBuffers() {
+        String body = "x".repeat(16 * 1024);
+
+        assertThat(NoteBodyCodec.decompress(NoteBodyCodec.compress(body))).isEqualTo(body);
+    }
+
+    @Test
+    void storedPrefixKeepsShortBodiesWhole() {
+        assertThat(NoteBodyCodec.storedPrefix("short")).isEqualTo("short");
+    }
+
+    @Test
+    void storedPrefixNeverSplitsASurrogatePair() {
+        // The emoji's high surrogate is the last char that would fit in the prefix
+        String body = "a".repeat(NoteBodyCodec.STORED_PREFIX_LENGTH - 1) + "😀" + "b".repeat(10);
+
+        String prefix = NoteBodyCodec.storedPrefix(body);
+
+        assertThat(prefix).hasSize(NoteBodyCodec.STORED_PREFIX_LENGTH - 1);
+        assertThat(body).startsWith(prefix);
+        assertThat(Character.isHighSurrogate(prefix.charAt(prefix.length() - 1))).isFalse();
+    }
+
+    @Test
+    void storedPrefixKeepsAPairThatFitsWhole() {
+        String body = "a".repeat(NoteBodyCodec.STORED_PREFIX_LENGTH - 2) + "😀" + "b".repeat(10);
+
+        assertThat(NoteBodyCodec.storedPrefix(body)).hasSize(NoteBodyCodec.STORED_PREFIX_LENGTH).endsWith("😀");
+    }
+
+    @Test
+    void rejectsUnknownCodecs() {
+        assertThatThrownBy(() -> NoteBodyCodec.decompress(new byte[0])).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> NoteBodyCodec.decompress(new byte[]{9, 1, 2})).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rejectsTruncatedBodies() {
+        byte[] stored = NoteBodyCodec.compress("some text ".repeat(1_000));
+
+        assertThatThrownBy(() -> NoteBodyCodec.decompress(Arrays.copyOf(stored, stored.length / 2)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,38 @@
+package org.vs.notesbe.util;
+
+import org.junit.jupiter.api.Test;
+import org.vs.notesbe.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NoteCursorTest {
+
+    @Test
+    void roundTrips() {
+        NoteCursor cursor = new NoteCursor(Instant.parse("2025-03-01T10:15:30.123456Z"), UUID.randomUUID());
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).doesNotContain("=", "+", "/");
+        assertThat(NoteCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    void rejectsInvalidCursors() {
+        assertThatThrownBy(() -> NoteCursor.decode("not base64!")).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> NoteCursor.decode(encode("no separator"))).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> NoteCursor.decode(encode("|" + UUID.randomUUID()))).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> NoteCursor.decode(encode("yesterday|" + UUID.randomUUID()))).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> NoteCursor.decode(encode(Instant.now() + "|not-a-uuid"))).isInstanceOf(InvalidCursorException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,66 @@
+package org.vs.notesbe.util;
+
+import org.junit.jupiter.api.Test;
+import org.vs.notesbe.dto.NoteTextEditDto;
+import org.vs.notesbe.exception.InvalidNotePatchException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TextPatchTest {
+
+    @Test
+    void appliesEditsPositionedAgainstTheOriginalText() {
+        String text = "buy milk and bread";
+
+        String patched = TextPatch.apply(text, List.of(
+                edit(0, 3, "get"),
+                edit(4, 4, "oat milk"),
+                edit(18, 0, " today")
+        ));
+
+        assertThat(patched).isEqualTo("get oat milk and bread today");
+    }
+
+    @Test
+    void insertsAndDeletes() {
+        assertThat(TextPatch.apply("", List.of(edit(0, 0, "hello")))).isEqualTo("hello");
+        assertThat(TextPatch.apply("hello world", List.of(edit(5, 6, null)))).isEqualTo("hello");
+        assertThat(TextPatch.apply("unchanged", List.of())).isEqualTo("unchanged");
+    }
+
+    @Test
+    void adjacentEditsAreAllowed() {
+        assertThat(TextPatch.apply("abcd", List.of(edit(0, 2, "X"), edit(2, 2, "Y")))).isEqualTo("XY");
+    }
+
+    @Test
+    void rejectsEditsOutOfOrderOrOverlapping() {
+        assertThatThrownBy(() -> TextPatch.apply("abcdef", List.of(edit(3, 1, "x"), edit(1, 1, "y"))))
+                .isInstanceOf(InvalidNotePatchException.class);
+        assertThatThrownBy(() -> TextPatch.apply("abcdef", List.of(edit(0, 3, "x"), edit(2, 1, "y"))))
+                .isInstanceOf(InvalidNotePatchException.class);
+    }
+
+    @Test
+    void rejectsEditsOutOfRange() {
+        assertThatThrownBy(() -> TextPatch.apply("abc", List.of(edit(4, 0, "x"))))
+                .isInstanceOf(InvalidNotePatchException.class);
+        assertThatThrownBy(() -> TextPatch.apply("abc", List.of(edit(2, 2, null))))
+                .isInstanceOf(InvalidNotePatchException.class);
+        assertThatThrownBy(() -> TextPatch.apply("abc", List.of(edit(1, -1, "x"))))
+                .isInstanceOf(InvalidNotePatchException.class);
+        assertThatThrownBy(() -> TextPatch.apply("abc", List.of(edit(null, 0, "x"))))
+                .isInstanceOf(InvalidNotePatchException.class);
+    }
+
+    private static NoteTextEditDto edit(Integer offset, Integer deleteCount, String insert) {
+        NoteTextEditDto edit = new NoteTextEditDto();
+        edit.setOffset(offset);
+        edit.setDeleteCount(deleteCount);
+        edit.setInsert(insert);
+        return edit;
+    }
+}
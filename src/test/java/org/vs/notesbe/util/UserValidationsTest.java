@@ -0,0 +1,36 @@
+package org.vs.notesbe.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.vs.notesbe.dto.ApiResponse;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserValidationsTest {
+
+    private final UserValidations userValidations = new UserValidations();
+    private final UUID userId = UUID.randomUUID();
+
+    @Test
+    void ownerIsAllowed() {
+        assertThat(userValidations.<Object>validateAuthenticatedUser(userId, userId)).isNull();
+    }
+
+    @Test
+    void missingPrincipalIsUnauthorized() {
+        ResponseEntity<ApiResponse<Object>> response = userValidations.validateAuthenticatedUser(null, userId);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void otherUsersAreForbidden() {
+        ResponseEntity<ApiResponse<Object>> response = userValidations.validateAuthenticatedUser(UUID.randomUUID(), userId);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(response.getBody().getSuccess()).isFalse();
+    }
+}